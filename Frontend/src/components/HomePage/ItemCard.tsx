@@ -5,6 +5,11 @@ interface ItemCardProps {
   onItemClick: (item: Item) => void;
 }
 
+// Cards are at most ~300px wide; the backend serves a resized variant
+function thumbnailUrl(url: string) {
+  return url.includes("/api/files/download/") ? `${url}?w=480` : url;
+}
+
 export default function ItemCard({ item, onItemClick }: ItemCardProps) {
   return (
     <div
@@ -16,7 +21,7 @@ export default function ItemCard({ item, onItemClick }: ItemCardProps) {
         {item.imageUrls && item.imageUrls.length > 0 ? (
           <img
             className="w-full h-full object-cover"
-            src={item.imageUrls[0]}
+            src={thumbnailUrl(item.imageUrls[0])}
             alt={item.title}
           />
         ) : (
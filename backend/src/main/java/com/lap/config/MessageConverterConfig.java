@@ -0,0 +1,38 @@
+package com.lap.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary alternatives to JSON for clients sending
+ * "Accept: application/cbor" or "Accept: application/x-jackson-smile".
+ * The mappers are built from Spring Boot's builder, so they use the same
+ * Jackson settings as JSON. Spring Boot keeps the JSON converter in front,
+ * so requests without a specific Accept header still get JSON.
+ */
+@Configuration
+public class MessageConverterConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+        Jackson2ObjectMapperBuilder builder
+    ) {
+        return new MappingJackson2CborHttpMessageConverter(
+            builder.factory(new CBORFactory()).build()
+        );
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+        Jackson2ObjectMapperBuilder builder
+    ) {
+        return new MappingJackson2SmileHttpMessageConverter(
+            builder.factory(new SmileFactory()).build()
+        );
+    }
+}
@@ -66,6 +66,8 @@ public class SecurityConfig {
                     .permitAll()
                     .requestMatchers("/api/items/all")
                     .permitAll()
+                    .requestMatchers("/api/items/events")
+                    .permitAll()
                     .requestMatchers("/api/files/download/**")
                     .permitAll()
                     .requestMatchers("/api/files/health")
@@ -6,6 +6,7 @@ import com.lap.entity.User;
 import com.lap.repository.CommentRepository;
 import com.lap.repository.ItemRepository;
 import com.lap.repository.UserRepository;
+import com.lap.service.ItemEventService;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +30,9 @@ public class CommentController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ItemEventService itemEventService;
+
     @PostMapping("/create")
     public ResponseEntity<Map<String, Object>> createComment(
         @RequestParam("text") String text,
@@ -61,6 +65,7 @@ public class CommentController {
             // Create comment
             Comment comment = new Comment(text, item, user);
             Comment savedComment = commentRepository.save(comment);
+            itemEventService.itemCommented(item, savedComment.getId());
 
             response.put("success", true);
             response.put("message", "Comment created successfully");
@@ -1,19 +1,32 @@
 package com.lap.controller;
 
 import com.lap.service.FileStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalLong;
+import org.apache.catalina.connector.CoyoteOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -26,34 +39,137 @@ public class FileController {
         FileController.class
     );
 
+    // Request attributes of Tomcat's sendfile support (see DefaultServlet)
+    private static final String SENDFILE_SUPPORTED =
+        "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME =
+        "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START =
+        "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END =
+        "org.apache.tomcat.sendfile.end";
+
+    // Each part of a B2 Range request is a separate B2 download. Beyond
+    // this many parts the whole file is sent with one download instead.
+    private static final int MAX_B2_RANGES = 10;
+    // Ranges overlapping an earlier one; more make the request a 416
+    private static final int MAX_RANGE_OVERLAPS = 2;
+    // Gaps up to the size of a part header are sent instead of split
+    private static final long MAX_RANGE_GAP = 80;
+
     @Autowired
     private FileStorageService fileStorageService;
 
     /**
-     * Download file by filename
+     * Download file by filename without holding it in memory. B2 objects
+     * are piped to the client as they arrive. Local files are handed to the
+     * connector's sendfile, so the kernel copies them to the socket, or
+     * else streamed from disk. Range requests (RFC 7233) are answered with
+     * 206 Partial Content, and for B2 only the requested bytes are fetched.
+     * Hot images are answered from off-heap memory without touching disk.
+     * With ?w= an image is replaced by its nearest resized variant.
      */
     @GetMapping("/download/{fileName:.+}")
     public ResponseEntity<Resource> downloadFile(
-        @PathVariable String fileName
+        @PathVariable("fileName") String requestedName,
+        @RequestParam(value = "w", required = false) Integer width,
+        @RequestHeader(
+            value = HttpHeaders.RANGE,
+            required = false
+        ) String range,
+        HttpServletRequest request,
+        HttpServletResponse response
     ) {
+        String fileName = fileStorageService.resolveVariant(
+            requestedName,
+            width
+        );
         try {
-            byte[] fileContent = fileStorageService.downloadFile(fileName);
+            if (range == null) {
+                ByteBuffer content = fileStorageService.getFileFromMemory(
+                    fileName
+                );
+                if (content != null) {
+                    writeFromMemory(fileName, content, response);
+                    return null;
+                }
+            }
 
-            ByteArrayResource resource = new ByteArrayResource(fileContent);
+            FileSystemResource file = fileStorageService
+                .getCachedFile(fileName)
+                .orElse(null);
+            if (file == null && range != null) {
+                OptionalLong size = fileStorageService.getB2FileSize(fileName);
+                if (size.isPresent()) {
+                    streamB2Ranges(fileName, range, size.getAsLong(), response);
+                    return null;
+                }
+            } else if (
+                file == null &&
+                fileStorageService.streamFromB2(
+                    fileName,
+                    (contentLength, contentType) -> {
+                        setDownloadHeaders(response, fileName, contentType);
+                        response.setContentLengthLong(contentLength);
+                        return response.getOutputStream();
+                    }
+                )
+            ) {
+                return null;
+            }
 
-            return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            // Cached B2 copies are served like local files
+            if (file == null) {
+                file = fileStorageService.getLocalFileResource(fileName);
+            }
+            // Hot images move into memory from their second request on
+            if (range == null) {
+                ByteBuffer content = fileStorageService.promoteToMemory(
+                    fileName,
+                    file
+                );
+                if (content != null) {
+                    writeFromMemory(fileName, content, response);
+                    return null;
+                }
+            }
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(
+                    MediaTypeFactory.getMediaType(fileName).orElse(
+                        MediaType.APPLICATION_OCTET_STREAM
+                    )
+                )
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
                 .header(
                     HttpHeaders.CONTENT_DISPOSITION,
                     "attachment; filename=\"" + fileName + "\""
-                )
-                .body(resource);
+                );
+
+            if (
+                range == null &&
+                Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))
+            ) {
+                request.setAttribute(
+                    SENDFILE_FILENAME,
+                    file.getFile().getAbsolutePath()
+                );
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, file.contentLength());
+                return builder.contentLength(file.contentLength()).build();
+            }
+            // Spring answers Range requests for a Resource body itself
+            // (206 with one or several ResourceRegions)
+            return builder.body(file);
         } catch (Exception e) {
             logger.error(
                 "Error downloading file {}: {}",
                 fileName,
                 e.getMessage()
             );
+            // Headers and part of the body may already be on the wire
+            if (response.isCommitted()) {
+                return null;
+            }
             return ResponseEntity.notFound().build();
         }
     }
@@ -447,4 +563,214 @@ public class FileController {
             );
         }
     }
+
+    /**
+     * Answer a Range request for a B2 file: one range as a plain 206
+     * body, several as multipart/byteranges, each fetched separately.
+     * Overlapping and nearby ranges are merged first (RFC 7233, 4.1), so a
+     * single anonymous request cannot fan out into many B2 downloads.
+     */
+    private void streamB2Ranges(
+        String fileName,
+        String rangeHeader,
+        long size,
+        HttpServletResponse response
+    ) throws IOException {
+        List<long[]> ranges = new ArrayList<>();
+        try {
+            for (HttpRange range : HttpRange.parseRanges(rangeHeader)) {
+                long first = range.getRangeStart(size);
+                long last = range.getRangeEnd(size);
+                if (first >= size || first > last) {
+                    throw new IllegalArgumentException("Unsatisfiable range");
+                }
+                ranges.add(new long[] { first, last });
+            }
+            if (ranges.isEmpty()) {
+                throw new IllegalArgumentException("No range");
+            }
+            ranges = coalesce(ranges);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(
+                HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()
+            );
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            return;
+        }
+
+        if (ranges.size() > MAX_B2_RANGES) {
+            fileStorageService.streamFromB2(
+                fileName,
+                (contentLength, contentType) -> {
+                    setDownloadHeaders(response, fileName, contentType);
+                    response.setContentLengthLong(contentLength);
+                    return response.getOutputStream();
+                }
+            );
+            return;
+        }
+
+        if (ranges.size() == 1) {
+            long first = ranges.get(0)[0];
+            long last = ranges.get(0)[1];
+            fileStorageService.streamRangeFromB2(
+                fileName,
+                first,
+                last,
+                (contentLength, contentType) -> {
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    setDownloadHeaders(response, fileName, contentType);
+                    response.setHeader(
+                        HttpHeaders.CONTENT_RANGE,
+                        contentRange(first, last, size)
+                    );
+                    response.setContentLengthLong(contentLength);
+                    return response.getOutputStream();
+                }
+            );
+            return;
+        }
+
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        OutputStream outputStream = null;
+        for (long[] range : ranges) {
+            outputStream = streamB2Part(
+                fileName,
+                range[0],
+                range[1],
+                size,
+                boundary,
+                outputStream,
+                response
+            );
+        }
+        outputStream.write(
+            ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII)
+        );
+        outputStream.flush();
+    }
+
+    /**
+     * Sort ranges and merge those that overlap or are at most
+     * MAX_RANGE_GAP bytes apart
+     *
+     * @throws IllegalArgumentException if more than MAX_RANGE_OVERLAPS
+     * ranges overlap an earlier one
+     */
+    private static List<long[]> coalesce(List<long[]> ranges) {
+        List<long[]> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparingLong(range -> range[0]));
+
+        List<long[]> merged = new ArrayList<>();
+        int overlaps = 0;
+        for (long[] range : sorted) {
+            long[] previous = merged.isEmpty()
+                ? null
+                : merged.get(merged.size() - 1);
+            if (previous == null || range[0] > previous[1] + MAX_RANGE_GAP) {
+                merged.add(new long[] { range[0], range[1] });
+                continue;
+            }
+            if (range[0] <= previous[1] && ++overlaps > MAX_RANGE_OVERLAPS) {
+                throw new IllegalArgumentException("Overlapping ranges");
+            }
+            previous[1] = Math.max(previous[1], range[1]);
+        }
+        return merged;
+    }
+
+    /**
+     * Write one part of a multipart/byteranges response; the response
+     * headers are sent with the first part
+     */
+    private OutputStream streamB2Part(
+        String fileName,
+        long first,
+        long last,
+        long size,
+        String boundary,
+        OutputStream outputStream,
+        HttpServletResponse response
+    ) {
+        OutputStream[] target = { outputStream };
+        fileStorageService.streamRangeFromB2(
+            fileName,
+            first,
+            last,
+            (contentLength, contentType) -> {
+                if (target[0] == null) {
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    setDownloadHeaders(
+                        response,
+                        fileName,
+                        "multipart/byteranges; boundary=" + boundary
+                    );
+                    target[0] = response.getOutputStream();
+                }
+                String partHeaders =
+                    "\r\n--" +
+                    boundary +
+                    "\r\nContent-Type: " +
+                    (contentType != null
+                        ? contentType
+                        : MediaType.APPLICATION_OCTET_STREAM_VALUE) +
+                    "\r\nContent-Range: " +
+                    contentRange(first, last, size) +
+                    "\r\n\r\n";
+                target[0].write(
+                    partHeaders.getBytes(StandardCharsets.US_ASCII)
+                );
+                return target[0];
+            }
+        );
+        return target[0];
+    }
+
+    /**
+     * Write an off-heap buffer to the client. Tomcat's output stream takes
+     * the buffer directly; any other stream goes through a channel.
+     */
+    private static void writeFromMemory(
+        String fileName,
+        ByteBuffer content,
+        HttpServletResponse response
+    ) throws IOException {
+        setDownloadHeaders(
+            response,
+            fileName,
+            MediaTypeFactory.getMediaType(fileName)
+                .map(MediaType::toString)
+                .orElse(null)
+        );
+        response.setContentLengthLong(content.remaining());
+
+        OutputStream outputStream = response.getOutputStream();
+        if (outputStream instanceof CoyoteOutputStream coyoteOutputStream) {
+            coyoteOutputStream.write(content);
+        } else {
+            Channels.newChannel(outputStream).write(content);
+        }
+        outputStream.flush();
+    }
+
+    private static void setDownloadHeaders(
+        HttpServletResponse response,
+        String fileName,
+        String contentType
+    ) {
+        response.setContentType(
+            contentType != null
+                ? contentType
+                : MediaType.APPLICATION_OCTET_STREAM_VALUE
+        );
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(
+            HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"" + fileName + "\""
+        );
+    }
+
+    private static String contentRange(long first, long last, long size) {
+        return "bytes " + first + "-" + last + "/" + size;
+    }
 }
@@ -1,23 +1,83 @@
 package com.lap.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lap.dto.ItemFields;
+import com.lap.dto.ItemImage;
+import com.lap.dto.ItemResponse;
+import com.lap.dto.ItemSummary;
+import com.lap.dto.ItemVersion;
 import com.lap.entity.Item;
 import com.lap.entity.User;
 import com.lap.repository.ItemRepository;
 import com.lap.repository.UserRepository;
 import com.lap.service.FileStorageService;
+import com.lap.service.GeocodingService;
+import com.lap.service.ImageUploadService;
+import com.lap.service.ItemEventService;
+import com.lap.service.ItemFacetService;
+import com.lap.service.ItemListCache;
+import com.lap.service.ItemSearchIndex;
+import com.lap.service.ItemSearchService;
+import com.lap.service.ItemSuggestService;
+import com.lap.service.SavedSearchService;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.stream.Stream;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/items")
 @CrossOrigin(origins = "*")
 public class ItemController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 200;
+    // Ranked matches returned by /search, whose response is not paged
+    private static final int MAX_SEARCH_RESULTS = 500;
+    // Ids per IN query; PostgreSQL allows at most 32767 bind parameters
+    private static final int IN_QUERY_CHUNK_SIZE = 1000;
+    private static final double MAX_RADIUS_KM = 500;
+    private static final String ALL_ITEMS_CACHE_KEY = "all";
+    private static final String APPLICATION_SMILE_VALUE =
+        "application/x-jackson-smile";
+    // Fields GET /api/items can be sorted by, each backed by an index (see
+    // V7__add_item_sort_indexes.sql)
+    private static final List<String> SORTABLE_FIELDS = List.of(
+        "createdAt",
+        "updatedAt",
+        "title",
+        "location"
+    );
+    // Rows rendered per image query when streaming /all
+    private static final int STREAM_CHUNK_SIZE = 200;
+
     @Value("${server.port:8080}")
     private String serverPort;
 
@@ -30,6 +90,39 @@ public class ItemController {
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private ItemSearchService itemSearchService;
+
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+
+    @Autowired
+    private ItemFacetService itemFacetService;
+
+    @Autowired
+    private GeocodingService geocodingService;
+
+    @Autowired
+    private ItemListCache itemListCache;
+
+    @Autowired
+    private ItemSuggestService itemSuggestService;
+
+    @Autowired
+    private SavedSearchService savedSearchService;
+
+    @Autowired
+    private ItemEventService itemEventService;
+
+    @Autowired
+    private ImageUploadService imageUploadService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @PostMapping("/create")
     public ResponseEntity<Map<String, Object>> createItem(
         @RequestParam("title") String title,
@@ -66,30 +159,13 @@ public class ItemController {
                 condition,
                 user
             );
+            geocodingService.applyCoordinates(item);
 
             // Handle images
             List<String> imageUrls = new ArrayList<>();
             if (images != null && images.length > 0) {
                 try {
-                    for (MultipartFile img : images) {
-                        if (!img.isEmpty()) {
-                            String fileName =
-                                "item_" +
-                                System.currentTimeMillis() +
-                                "_" +
-                                img.getOriginalFilename();
-                            fileStorageService.uploadFile(img, fileName);
-                            String imageUrl = fileStorageService.getDownloadUrl(
-                                fileName
-                            );
-                            // Convert relative URL to absolute URL for frontend
-                            if (imageUrl.startsWith("/api/")) {
-                                imageUrl =
-                                    "http://localhost:" + serverPort + imageUrl;
-                            }
-                            imageUrls.add(imageUrl);
-                        }
-                    }
+                    imageUrls.addAll(uploadImages(images));
                 } catch (Exception e) {
                     response.put("success", false);
                     response.put(
@@ -106,7 +182,13 @@ public class ItemController {
             }
 
             // Save item
-            Item savedItem = itemRepository.save(item);
+            Item savedItem = saveWithImages(item, imageUrls);
+            itemSearchIndex.index(savedItem);
+            itemFacetService.index(savedItem);
+            itemSuggestService.index(savedItem);
+            itemListCache.invalidateAll();
+            savedSearchService.percolate(savedItem);
+            itemEventService.itemCreated(savedItem);
 
             response.put("success", true);
             response.put("message", "Artikel erfolgreich erstellt");
@@ -131,6 +213,14 @@ public class ItemController {
         @RequestParam(required = false) String search,
         @RequestParam(defaultValue = "createdAt") String sortBy,
         @RequestParam(defaultValue = "desc") String sortDir,
+        @RequestParam(defaultValue = "false") boolean facets,
+        @RequestParam(required = false) String near,
+        @RequestParam(defaultValue = "10") double radiusKm,
+        @RequestParam(required = false) String fields,
+        @RequestHeader(
+            value = "If-None-Match",
+            required = false
+        ) String ifNoneMatch,
         Authentication authentication
     ) {
         Map<String, Object> response = new HashMap<>();
@@ -139,44 +229,292 @@ public class ItemController {
             String currentUsername = authentication != null
                 ? authentication.getName()
                 : null;
-            List<Item> items;
+            boolean hasSearch = search != null && !search.isEmpty();
+            boolean withFacets = facets && itemFacetService.isReady();
+            ItemFields itemFields = ItemFields.parse(fields);
+
+            // Search ranking includes a time-dependent recency boost, so
+            // only plain, category and near listings get an ETag. Facet
+            // counts cover all categories, so they need the global version.
+            String eTag = null;
+            if (!hasSearch) {
+                eTag = createETag(
+                    category != null && !category.isEmpty() && !withFacets
+                        ? itemRepository.findVersionByCategory(category)
+                        : itemRepository.findVersion(),
+                    currentUsername,
+                    page,
+                    size,
+                    category,
+                    sortBy,
+                    sortDir,
+                    near,
+                    radiusKm,
+                    withFacets,
+                    itemFields.key()
+                );
+                if (matchesETag(ifNoneMatch, eTag)) {
+                    return notModified(eTag);
+                }
+            }
 
-            if (
-                search != null &&
-                !search.isEmpty() &&
-                category != null &&
-                !category.isEmpty()
-            ) {
-                items = itemRepository.findByCategoryAndKeyword(
+            // Applies to plain listings; search results are ranked by
+            // relevance and near results by distance
+            Pageable pageable = PageRequest.of(
+                Math.max(page, 0),
+                clampPageSize(size),
+                parseSort(sortBy, sortDir)
+            );
+            Page<ItemResponse> items;
+
+            if (near != null && !near.isEmpty() && hasSearch) {
+                response.put("success", false);
+                response.put("error", "near cannot be combined with search");
+                return ResponseEntity.badRequest().body(response);
+            } else if (near != null && !near.isEmpty()) {
+                items = findItemsNearPage(
                     category,
-                    search
+                    near,
+                    radiusKm,
+                    pageable,
+                    currentUsername,
+                    itemFields
+                );
+            } else if (hasSearch) {
+                items = searchItemsPage(
+                    category,
+                    search,
+                    pageable,
+                    currentUsername,
+                    itemFields
                 );
-            } else if (search != null && !search.isEmpty()) {
-                items = itemRepository.findByKeyword(search);
             } else if (category != null && !category.isEmpty()) {
-                items = itemRepository.findByCategory(category);
+                items = createResponsePage(
+                    itemRepository.findSummariesByCategory(
+                        category,
+                        itemFields.withDescription(),
+                        pageable
+                    ),
+                    currentUsername,
+                    itemFields
+                );
             } else {
-                items = itemRepository.findAllByOrderByCreatedAtDesc();
+                items = createResponsePage(
+                    itemRepository.findSummaries(
+                        itemFields.withDescription(),
+                        pageable
+                    ),
+                    currentUsername,
+                    itemFields
+                );
             }
 
-            List<Map<String, Object>> itemResponses = items
-                .stream()
-                .map(item -> createItemResponse(item, currentUsername))
-                .toList();
-
             // Create paginated response
             Map<String, Object> paginatedResponse = new HashMap<>();
-            paginatedResponse.put("items", itemResponses);
-            paginatedResponse.put("currentPage", page);
-            paginatedResponse.put("totalItems", itemResponses.size());
             paginatedResponse.put(
-                "totalPages",
-                (int) Math.ceil((double) itemResponses.size() / size)
+                "items",
+                itemFields.render(items.getContent())
             );
+            paginatedResponse.put("currentPage", items.getNumber());
+            paginatedResponse.put("pageSize", items.getSize());
+            paginatedResponse.put("totalItems", items.getTotalElements());
+            paginatedResponse.put("totalPages", items.getTotalPages());
+            paginatedResponse.put("hasNext", items.hasNext());
+            if (withFacets) {
+                paginatedResponse.put(
+                    "facets",
+                    facetCounts(search, category, null, null, null)
+                );
+            }
 
             response.put("success", true);
             response.put("data", paginatedResponse);
+            return okWithETag(response, eTag);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", "Failed to fetch items: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Facet counts (category, location, condition, isReserved) under the
+     * given filters, optionally restricted to the matches of a search
+     */
+    @GetMapping("/facets")
+    public ResponseEntity<Map<String, Object>> getFacets(
+        @RequestParam(required = false) String category,
+        @RequestParam(required = false) String location,
+        @RequestParam(required = false) String condition,
+        @RequestParam(required = false) Boolean isReserved,
+        @RequestParam(required = false) String search
+    ) {
+        Map<String, Object> response = new HashMap<>();
+
+        if (!itemFacetService.isReady()) {
+            response.put("success", false);
+            response.put("error", "Facets are not available yet");
+            return ResponseEntity.status(503).body(response);
+        }
+
+        try {
+            response.put("success", true);
+            response.put(
+                "data",
+                facetCounts(search, category, location, condition, isReserved)
+            );
             return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", "Failed to count facets: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Upload counts and durations of item photo uploads
+     */
+    @GetMapping("/upload-stats")
+    public ResponseEntity<Map<String, Object>> getUploadStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", imageUploadService.getStatistics());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Hit/miss/eviction statistics of the anonymous list cache
+     */
+    @GetMapping("/cache-stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", itemListCache.getStatistics());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Typeahead for the search bar: completions of title words and
+     * categories, most frequent first, answered from memory
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<Map<String, Object>> getSuggestions(
+        @RequestParam("q") String query,
+        @RequestParam(defaultValue = "8") int limit
+    ) {
+        Map<String, Object> response = new HashMap<>();
+        int maxSuggestions = Math.max(
+            1,
+            Math.min(limit, ItemSuggestService.MAX_SUGGESTIONS)
+        );
+
+        Map<String, Object> suggestions = new HashMap<>();
+        suggestions.put(
+            "terms",
+            itemSuggestService.suggestTerms(query, maxSuggestions)
+        );
+        suggestions.put(
+            "categories",
+            itemSuggestService.suggestCategories(query, maxSuggestions)
+        );
+
+        response.put("success", true);
+        response.put("data", suggestions);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Server-Sent Events stream of item changes (created, updated,
+     * reserved, deleted, commented), optionally limited to one item or one
+     * category
+     */
+    @GetMapping(
+        value = "/events",
+        produces = MediaType.TEXT_EVENT_STREAM_VALUE
+    )
+    public ResponseEntity<SseEmitter> streamEvents(
+        @RequestParam(required = false) Long itemId,
+        @RequestParam(required = false) String category
+    ) {
+        if (itemId != null && category != null && !category.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(itemEventService.subscribe(itemId, category));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(
+                HttpStatus.SERVICE_UNAVAILABLE
+            ).build();
+        }
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<Map<String, Object>> scrollItems(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "10") int size,
+        @RequestParam(required = false) String category,
+        Authentication authentication
+    ) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            String currentUsername = authentication != null
+                ? authentication.getName()
+                : null;
+            int pageSize = clampPageSize(size);
+            // Fetch one extra row to find out whether another page exists
+            Pageable limit = PageRequest.of(0, pageSize + 1);
+            boolean hasCategory = category != null && !category.isEmpty();
+            List<Item> items;
+
+            if (cursor == null || cursor.isEmpty()) {
+                items = hasCategory
+                    ? itemRepository.findFirstPageByCategory(category, limit)
+                    : itemRepository.findFirstPage(limit);
+            } else {
+                String[] position = decodeCursor(cursor);
+                LocalDateTime createdAt = LocalDateTime.parse(position[0]);
+                Long lastId = Long.valueOf(position[1]);
+                items = hasCategory
+                    ? itemRepository.findPageAfterByCategory(
+                        category,
+                        createdAt,
+                        lastId,
+                        limit
+                    )
+                    : itemRepository.findPageAfter(createdAt, lastId, limit);
+            }
+
+            boolean hasNext = items.size() > pageSize;
+            if (hasNext) {
+                items = items.subList(0, pageSize);
+            }
+
+            Map<String, Object> scrollResponse = new HashMap<>();
+            scrollResponse.put(
+                "items",
+                createItemResponses(items, currentUsername)
+            );
+            scrollResponse.put("hasNext", hasNext);
+            scrollResponse.put(
+                "nextCursor",
+                hasNext ? encodeCursor(items.get(items.size() - 1)) : null
+            );
+
+            response.put("success", true);
+            response.put("data", scrollResponse);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            response.put("success", false);
+            response.put("error", "Invalid cursor");
+            return ResponseEntity.badRequest().body(response);
         } catch (Exception e) {
             response.put("success", false);
             response.put("error", "Failed to fetch items: " + e.getMessage());
@@ -185,7 +523,13 @@ public class ItemController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Map<String, Object>> getAllItems(
+    public ResponseEntity<?> getAllItems(
+        @RequestParam(required = false) String fields,
+        @RequestHeader(
+            value = "If-None-Match",
+            required = false
+        ) String ifNoneMatch,
+        @RequestHeader(value = "Accept", required = false) String accept,
         Authentication authentication
     ) {
         Map<String, Object> response = new HashMap<>();
@@ -194,16 +538,51 @@ public class ItemController {
             String currentUsername = authentication != null
                 ? authentication.getName()
                 : null;
-            List<Item> items = itemRepository.findAllByOrderByCreatedAtDesc();
+            ItemFields itemFields = ItemFields.parse(fields);
+            String cacheKey = itemFields.isAll()
+                ? ALL_ITEMS_CACHE_KEY
+                : ALL_ITEMS_CACHE_KEY + "?fields=" + itemFields.key();
+
+            // Anonymous JSON responses are the same for everyone and served
+            // from the rendered-response cache
+            boolean cacheable = currentUsername == null && acceptsJson(accept);
+            if (cacheable) {
+                ItemListCache.Entry cached = itemListCache.get(cacheKey);
+                if (cached != null) {
+                    return matchesETag(ifNoneMatch, cached.eTag())
+                        ? notModified(cached.eTag())
+                        : okWithETag(cached);
+                }
+            }
 
-            List<Map<String, Object>> itemResponses = items
-                .stream()
-                .map(item -> createItemResponse(item, currentUsername))
-                .toList();
+            long cacheGeneration = itemListCache.generation();
+            String eTag = createETag(
+                itemRepository.findVersion(),
+                currentUsername,
+                itemFields.key()
+            );
+            if (matchesETag(ifNoneMatch, eTag)) {
+                return notModified(eTag);
+            }
+
+            List<ItemResponse> itemResponses = createSummaryResponses(
+                itemRepository.findAllSummaries(itemFields.withDescription()),
+                currentUsername,
+                itemFields
+            );
 
             response.put("success", true);
-            response.put("data", itemResponses);
-            return ResponseEntity.ok(response);
+            response.put("data", itemFields.render(itemResponses));
+
+            if (cacheable) {
+                ItemListCache.Entry entry = new ItemListCache.Entry(
+                    objectMapper.writeValueAsBytes(response),
+                    eTag
+                );
+                itemListCache.put(cacheKey, cacheGeneration, entry);
+                return okWithETag(entry);
+            }
+            return okWithETag(response, eTag);
         } catch (Exception e) {
             response.put("success", false);
             response.put("error", "Failed to fetch items: " + e.getMessage());
@@ -211,10 +590,39 @@ public class ItemController {
         }
     }
 
+    /**
+     * Streaming variant of /all (?stream=true): rows are read from a
+     * database cursor and written as they arrive, so memory use does not
+     * grow with the catalog
+     */
+    @GetMapping(value = "/all", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllItems(
+        Authentication authentication
+    ) {
+        String currentUsername = authentication != null
+            ? authentication.getName()
+            : null;
+
+        StreamingResponseBody body = outputStream -> {
+            TransactionTemplate transaction = new TransactionTemplate(
+                transactionManager
+            );
+            transaction.setReadOnly(true);
+            transaction.executeWithoutResult(status ->
+                writeAllItems(outputStream, currentUsername)
+            );
+        };
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
+    }
+
     @GetMapping("/search")
     public ResponseEntity<Map<String, Object>> searchItems(
         @RequestParam(required = false) String keyword,
         @RequestParam(required = false) String category,
+        @RequestParam(defaultValue = "false") boolean fuzzy,
         Authentication authentication
     ) {
         Map<String, Object> response = new HashMap<>();
@@ -223,31 +631,55 @@ public class ItemController {
             String currentUsername = authentication != null
                 ? authentication.getName()
                 : null;
-            List<Item> items;
+            List<ItemResponse> itemResponses;
+            boolean hasCategory = category != null && !category.isEmpty();
 
-            if (
+            if (fuzzy && keyword != null && !keyword.isEmpty()) {
+                itemResponses = createItemResponses(
+                    itemSearchService.fuzzySearch(keyword, category),
+                    currentUsername
+                );
+            } else if (
                 keyword != null &&
                 !keyword.isEmpty() &&
-                category != null &&
-                !category.isEmpty()
+                itemSearchIndex.isReady()
             ) {
-                items = itemRepository.findByCategoryAndKeyword(
-                    category,
-                    keyword
+                itemResponses = createSummaryResponses(
+                    loadSummariesInOrder(
+                        itemSearchIndex
+                            .search(keyword, category, 0, MAX_SEARCH_RESULTS)
+                            .ids(),
+                        ItemFields.ALL
+                    ),
+                    currentUsername
                 );
             } else if (keyword != null && !keyword.isEmpty()) {
-                items = itemRepository.findByKeyword(keyword);
-            } else if (category != null && !category.isEmpty()) {
-                items = itemRepository.findByCategory(category);
+                List<Item> items = hasCategory
+                    ? itemRepository.searchFullTextByCategory(category, keyword)
+                    : itemRepository.searchFullText(keyword);
+                // Fall back to substring matching for word fragments the
+                // german stemmer cannot match (e.g. "Fahr" for "Fahrrad")
+                if (items.isEmpty()) {
+                    items = hasCategory
+                        ? itemRepository.findByCategoryAndKeyword(
+                            category,
+                            keyword
+                        )
+                        : itemRepository.findByKeyword(keyword);
+                }
+                itemResponses = createItemResponses(items, currentUsername);
+            } else if (hasCategory) {
+                itemResponses = createItemResponses(
+                    itemRepository.findByCategory(category),
+                    currentUsername
+                );
             } else {
-                items = itemRepository.findAllByOrderByCreatedAtDesc();
+                itemResponses = createSummaryResponses(
+                    itemRepository.findAllSummaries(),
+                    currentUsername
+                );
             }
 
-            List<Map<String, Object>> itemResponses = items
-                .stream()
-                .map(item -> createItemResponse(item, currentUsername))
-                .toList();
-
             response.put("success", true);
             response.put("data", itemResponses);
             return ResponseEntity.ok(response);
@@ -290,6 +722,11 @@ public class ItemController {
             // Toggle reservation
             item.setIsReserved(!item.getIsReserved());
             Item savedItem = itemRepository.save(item);
+            itemSearchIndex.index(savedItem);
+            itemFacetService.index(savedItem);
+            itemSuggestService.index(savedItem);
+            itemListCache.invalidateAll();
+            itemEventService.itemReserved(savedItem);
 
             response.put("success", true);
             response.put(
@@ -311,8 +748,87 @@ public class ItemController {
         }
     }
 
+    /**
+     * Several items by id with one summary query and one image query, in
+     * the order of the ids. Ids without an item are listed in missingIds.
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<Map<String, Object>> getItemsBatch(
+        @RequestParam("ids") List<Long> ids,
+        @RequestParam(required = false) String fields,
+        @RequestHeader(
+            value = "If-None-Match",
+            required = false
+        ) String ifNoneMatch,
+        Authentication authentication
+    ) {
+        Map<String, Object> response = new HashMap<>();
+
+        List<Long> requestedIds = ids
+            .stream()
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+        if (requestedIds.isEmpty() || requestedIds.size() > MAX_BATCH_SIZE) {
+            response.put("success", false);
+            response.put(
+                "error",
+                "Zwischen 1 und " + MAX_BATCH_SIZE + " IDs erforderlich"
+            );
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        try {
+            String currentUsername = authentication != null
+                ? authentication.getName()
+                : null;
+            ItemFields itemFields = ItemFields.parse(fields);
+            String eTag = createETag(
+                itemRepository.findVersionByIds(requestedIds),
+                currentUsername,
+                requestedIds,
+                itemFields.key()
+            );
+            if (matchesETag(ifNoneMatch, eTag)) {
+                return notModified(eTag);
+            }
+
+            List<ItemResponse> itemResponses = createSummaryResponses(
+                loadSummariesInOrder(requestedIds, itemFields),
+                currentUsername,
+                itemFields
+            );
+
+            Set<Long> foundIds = new HashSet<>();
+            for (ItemResponse itemResponse : itemResponses) {
+                foundIds.add(itemResponse.id());
+            }
+            List<Long> missingIds = requestedIds
+                .stream()
+                .filter(id -> !foundIds.contains(id))
+                .toList();
+
+            response.put("success", true);
+            response.put("data", itemFields.render(itemResponses));
+            response.put("missingIds", missingIds);
+            return okWithETag(response, eTag);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put(
+                "error",
+                "Fehler beim Abrufen der Artikel: " + e.getMessage()
+            );
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     @GetMapping("/my-items")
     public ResponseEntity<Map<String, Object>> getMyItems(
+        @RequestParam(required = false) String fields,
+        @RequestHeader(
+            value = "If-None-Match",
+            required = false
+        ) String ifNoneMatch,
         Authentication authentication
     ) {
         Map<String, Object> response = new HashMap<>();
@@ -325,19 +841,28 @@ public class ItemController {
             }
 
             String currentUsername = authentication.getName();
-            List<Item> items =
-                itemRepository.findByUserUsernameOrderByCreatedAtDesc(
-                    currentUsername
-                );
-
-            List<Map<String, Object>> itemsList = new ArrayList<>();
-            for (Item item : items) {
-                itemsList.add(createItemResponse(item, currentUsername));
+            ItemFields itemFields = ItemFields.parse(fields);
+            String eTag = createETag(
+                itemRepository.findVersionByOwner(currentUsername),
+                currentUsername,
+                itemFields.key()
+            );
+            if (matchesETag(ifNoneMatch, eTag)) {
+                return notModified(eTag);
             }
 
+            List<ItemResponse> itemsList = createSummaryResponses(
+                itemRepository.findSummariesByOwner(
+                    currentUsername,
+                    itemFields.withDescription()
+                ),
+                currentUsername,
+                itemFields
+            );
+
             response.put("success", true);
-            response.put("data", itemsList);
-            return ResponseEntity.ok(response);
+            response.put("data", itemFields.render(itemsList));
+            return okWithETag(response, eTag);
         } catch (Exception e) {
             response.put("success", false);
             response.put(
@@ -351,6 +876,11 @@ public class ItemController {
     @GetMapping("/{id}")
     public ResponseEntity<Map<String, Object>> getItem(
         @PathVariable Long id,
+        @RequestParam(required = false) String fields,
+        @RequestHeader(
+            value = "If-None-Match",
+            required = false
+        ) String ifNoneMatch,
         Authentication authentication
     ) {
         Map<String, Object> response = new HashMap<>();
@@ -359,6 +889,15 @@ public class ItemController {
             String currentUsername = authentication != null
                 ? authentication.getName()
                 : null;
+            ItemFields itemFields = ItemFields.parse(fields);
+            ItemVersion version = itemRepository.findVersionById(id);
+            String eTag = version.count() > 0
+                ? createETag(version, currentUsername, id, itemFields.key())
+                : null;
+            if (matchesETag(ifNoneMatch, eTag)) {
+                return notModified(eTag);
+            }
+
             Optional<Item> itemOpt = itemRepository.findById(id);
 
             if (!itemOpt.isPresent()) {
@@ -369,9 +908,12 @@ public class ItemController {
 
             Item item = itemOpt.get();
             response.put("success", true);
-            response.put("data", createItemResponse(item, currentUsername));
+            response.put(
+                "data",
+                itemFields.render(createItemResponse(item, currentUsername))
+            );
 
-            return ResponseEntity.ok(response);
+            return okWithETag(response, eTag);
         } catch (Exception e) {
             response.put("success", false);
             response.put(
@@ -424,6 +966,8 @@ public class ItemController {
                     }
                     item.setImageUrls(refreshedUrls);
                     itemRepository.save(item);
+                    itemListCache.invalidateAll();
+                    itemEventService.itemUpdated(item);
 
                     response.put("success", true);
                     response.put("imageUrls", refreshedUrls);
@@ -451,36 +995,550 @@ public class ItemController {
         }
     }
 
-    private Map<String, Object> createItemResponse(Item item, String username) {
-        Map<String, Object> itemMap = new HashMap<>();
-        itemMap.put("id", item.getId());
-        itemMap.put("title", item.getTitle());
-        itemMap.put("description", item.getDescription());
-        itemMap.put("category", item.getCategory());
-        itemMap.put("location", item.getLocation());
-        itemMap.put("condition", item.getCondition());
+    /**
+     * Ranked search for one page. Uses the in-memory index when it is built,
+     * otherwise PostgreSQL full-text search with a substring fallback.
+     */
+    private Page<ItemResponse> searchItemsPage(
+        String category,
+        String search,
+        Pageable pageable,
+        String username,
+        ItemFields fields
+    ) {
+        if (itemSearchIndex.isReady()) {
+            ItemSearchIndex.SearchResult result = itemSearchIndex.search(
+                search,
+                category,
+                (int) pageable.getOffset(),
+                pageable.getPageSize()
+            );
+            return new PageImpl<>(
+                createSummaryResponses(
+                    loadSummariesInOrder(result.ids(), fields),
+                    username,
+                    fields
+                ),
+                pageable,
+                result.total()
+            );
+        }
+
+        boolean hasCategory = category != null && !category.isEmpty();
+        // Ranked queries carry their own ORDER BY
+        Pageable unsorted = PageRequest.of(
+            pageable.getPageNumber(),
+            pageable.getPageSize()
+        );
+        Page<Item> items = hasCategory
+            ? itemRepository.searchFullTextByCategory(category, search, unsorted)
+            : itemRepository.searchFullText(search, unsorted);
+
+        if (items.getTotalElements() == 0) {
+            items = hasCategory
+                ? itemRepository.findByCategoryAndKeyword(
+                    category,
+                    search,
+                    pageable
+                )
+                : itemRepository.findByKeyword(search, pageable);
+        }
+        return items.map(item -> createItemResponse(item, username));
+    }
+
+    /**
+     * Items within radiusKm of near ("lat,lon"), nearest first
+     */
+    private Page<ItemResponse> findItemsNearPage(
+        String category,
+        String near,
+        double radiusKm,
+        Pageable pageable,
+        String username,
+        ItemFields fields
+    ) {
+        String[] point = near.split(",");
+        double latitude = point.length == 2
+            ? parseCoordinate(point[0])
+            : Double.NaN;
+        double longitude = point.length == 2
+            ? parseCoordinate(point[1])
+            : Double.NaN;
+        if (!(Math.abs(latitude) <= 90) || !(Math.abs(longitude) <= 180)) {
+            throw new IllegalArgumentException(
+                "Invalid near parameter, expected lat,lon"
+            );
+        }
+        if (!(radiusKm > 0) || radiusKm > MAX_RADIUS_KM) {
+            throw new IllegalArgumentException(
+                "radiusKm must be between 0 and " + MAX_RADIUS_KM
+            );
+        }
+
+        double radiusMeters = radiusKm * 1000;
+        // Ordered by distance in the query
+        Pageable unsorted = PageRequest.of(
+            pageable.getPageNumber(),
+            pageable.getPageSize()
+        );
+        Page<Long> ids = category != null && !category.isEmpty()
+            ? itemRepository.findIdsNearByCategory(
+                category,
+                latitude,
+                longitude,
+                radiusMeters,
+                unsorted
+            )
+            : itemRepository.findIdsNear(
+                latitude,
+                longitude,
+                radiusMeters,
+                unsorted
+            );
+
+        return new PageImpl<>(
+            createSummaryResponses(
+                loadSummariesInOrder(ids.getContent(), fields),
+                username,
+                fields
+            ),
+            pageable,
+            ids.getTotalElements()
+        );
+    }
+
+    private static double parseCoordinate(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Facet counts from the cached facet values. A search is resolved to the
+     * ids of all its matches first, via the search index when it is built
+     * or else with full-text and substring queries.
+     */
+    private Map<String, Map<String, Long>> facetCounts(
+        String search,
+        String category,
+        String location,
+        String condition,
+        Boolean isReserved
+    ) {
+        if (search == null || search.isEmpty()) {
+            return itemFacetService.count(
+                category,
+                location,
+                condition,
+                isReserved
+            );
+        }
+
+        Collection<Long> matchingIds;
+        if (itemSearchIndex.isReady()) {
+            matchingIds = itemSearchIndex.matchingIds(search);
+        } else {
+            matchingIds = itemRepository.searchFullTextIds(search);
+            if (matchingIds.isEmpty()) {
+                matchingIds = itemRepository.findIdsByKeyword(search);
+            }
+        }
+        return itemFacetService.count(
+            matchingIds,
+            category,
+            location,
+            condition,
+            isReserved
+        );
+    }
+
+    /**
+     * Write {"success": true, "data": [...]} for all items, rendering
+     * STREAM_CHUNK_SIZE rows at a time
+     */
+    private void writeAllItems(OutputStream outputStream, String username) {
+        try (
+            Stream<ItemSummary> summaries = itemRepository.streamAllSummaries();
+            JsonGenerator generator = objectMapper
+                .getFactory()
+                .createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+        ) {
+            generator.writeStartObject();
+            generator.writeBooleanField("success", true);
+            generator.writeArrayFieldStart("data");
+
+            List<ItemSummary> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            Iterator<ItemSummary> rows = summaries.iterator();
+            while (rows.hasNext()) {
+                chunk.add(rows.next());
+                if (chunk.size() == STREAM_CHUNK_SIZE || !rows.hasNext()) {
+                    for (ItemResponse item : createSummaryResponses(
+                        chunk,
+                        username
+                    )) {
+                        generator.writeObject(item);
+                    }
+                    generator.flush();
+                    chunk.clear();
+                }
+            }
+
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Load item summaries by id in a single query, keeping the order of the ids
+     */
+    private List<ItemSummary> loadSummariesInOrder(
+        List<Long> ids,
+        ItemFields fields
+    ) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, ItemSummary> summariesById = new HashMap<>();
+        for (List<Long> chunk : chunks(ids)) {
+            for (ItemSummary summary : itemRepository.findSummariesByIds(
+                chunk,
+                fields.withDescription()
+            )) {
+                summariesById.put(summary.id(), summary);
+            }
+        }
+
+        List<ItemSummary> summaries = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ItemSummary summary = summariesById.get(id);
+            if (summary != null) {
+                summaries.add(summary);
+            }
+        }
+        return summaries;
+    }
+
+    /**
+     * Ids split into lists of at most IN_QUERY_CHUNK_SIZE, one per IN query
+     */
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += IN_QUERY_CHUNK_SIZE) {
+            chunks.add(
+                ids.subList(
+                    from,
+                    Math.min(from + IN_QUERY_CHUNK_SIZE, ids.size())
+                )
+            );
+        }
+        return chunks;
+    }
+
+    /**
+     * Strong ETag over the change marker of the items in a response, the
+     * requesting user (isMyItem differs per user), the response format and
+     * the request parameters
+     */
+    private String createETag(
+        ItemVersion version,
+        String username,
+        Object... parameters
+    ) {
+        StringBuilder key = new StringBuilder()
+            .append(version.lastModified())
+            .append('|')
+            .append(version.count())
+            .append('|')
+            .append(username)
+            .append('|')
+            .append(responseFormat());
+        for (Object parameter : parameters) {
+            key.append('|').append(parameter);
+        }
+        return (
+            "\"" +
+            DigestUtils.md5DigestAsHex(
+                key.toString().getBytes(StandardCharsets.UTF_8)
+            ) +
+            "\""
+        );
+    }
+
+    /**
+     * "json", or for CBOR/Smile clients the Accept header itself, which
+     * decides the negotiated format. A 304 must never let a client reuse a
+     * body in another format.
+     */
+    private static String responseFormat() {
+        String accept = RequestContextHolder.getRequestAttributes() instanceof
+            ServletRequestAttributes attributes
+            ? attributes.getRequest().getHeader(HttpHeaders.ACCEPT)
+            : null;
+        return acceptsJson(accept) ? "json" : accept;
+    }
+
+    private boolean matchesETag(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (
+                candidate.equals("*") ||
+                candidate.equals(eTag) ||
+                candidate.equals("W/" + eTag)
+            ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ResponseEntity<Map<String, Object>> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+            .eTag(eTag)
+            .varyBy(HttpHeaders.ACCEPT)
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .build();
+    }
+
+    /**
+     * 200 response that lets the browser keep the body and revalidate it
+     * with If-None-Match on the next request
+     */
+    private ResponseEntity<Map<String, Object>> okWithETag(
+        Map<String, Object> body,
+        String eTag
+    ) {
+        if (eTag == null) {
+            return ResponseEntity.ok(body);
+        }
+        return ResponseEntity.ok()
+            .eTag(eTag)
+            .varyBy(HttpHeaders.ACCEPT)
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .body(body);
+    }
+
+    /**
+     * Whether a client can be answered with cached JSON, i.e. it did not
+     * ask for CBOR or Smile (see MessageConverterConfig)
+     */
+    private static boolean acceptsJson(String accept) {
+        return (
+            accept == null ||
+            !(accept.contains(MediaType.APPLICATION_CBOR_VALUE) ||
+                accept.contains(APPLICATION_SMILE_VALUE))
+        );
+    }
+
+    private ResponseEntity<byte[]> okWithETag(ItemListCache.Entry entry) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(entry.eTag())
+            .varyBy(HttpHeaders.ACCEPT)
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .body(entry.body());
+    }
+
+    /**
+     * Whitelisted sort with id as tie-breaker, so pages are stable
+     */
+    private Sort parseSort(String sortBy, String sortDir) {
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException(
+                "Invalid sortBy, allowed: " + String.join(", ", SORTABLE_FIELDS)
+            );
+        }
+        Sort.Direction direction = Sort.Direction.fromOptionalString(sortDir)
+            .orElseThrow(() ->
+                new IllegalArgumentException(
+                    "Invalid sortDir, allowed: asc, desc"
+                )
+            );
+        return Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+    }
+
+    private int clampPageSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Encode the (createdAt, id) position of the last item of a page as an
+     * opaque cursor for keyset pagination
+     */
+    private String encodeCursor(Item item) {
+        String position = item.getCreatedAt().toString() + "|" + item.getId();
+        return Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        String position = new String(
+            Base64.getUrlDecoder().decode(cursor),
+            StandardCharsets.UTF_8
+        );
+        String[] parts = position.split("\\|");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return parts;
+    }
 
-        // Convert relative URLs to absolute URLs for private B2 bucket
+    /**
+     * Upload item photos concurrently and return their URLs in the order
+     * given; on failure none of them is kept
+     */
+    private List<String> uploadImages(MultipartFile[] images) {
+        List<String> imageUrls = new ArrayList<>();
+        for (String fileName : imageUploadService.uploadAll(images, "item_")) {
+            String imageUrl = fileStorageService.getDownloadUrl(fileName);
+            // Convert relative URL to absolute URL for frontend
+            if (imageUrl.startsWith("/api/")) {
+                imageUrl = "http://localhost:" + serverPort + imageUrl;
+            }
+            imageUrls.add(imageUrl);
+        }
+        return imageUrls;
+    }
+
+    /**
+     * Save an item with newly uploaded photos, deleting the photos again if
+     * the save fails so they do not stay in storage without an item
+     */
+    private Item saveWithImages(Item item, List<String> newImageUrls) {
+        try {
+            return itemRepository.save(item);
+        } catch (RuntimeException e) {
+            imageUploadService.rollback(
+                newImageUrls.stream().map(ItemController::fileNameOf).toList()
+            );
+            throw e;
+        }
+    }
+
+    /**
+     * File name of an uploaded photo from its download URL
+     */
+    private static String fileNameOf(String imageUrl) {
+        String fileName = imageUrl.substring(imageUrl.lastIndexOf('/') + 1);
+        int query = fileName.indexOf('?');
+        return query >= 0 ? fileName.substring(0, query) : fileName;
+    }
+
+    private ItemResponse createItemResponse(Item item, String username) {
         List<String> absoluteUrls = new ArrayList<>();
         if (item.getImageUrls() != null) {
             for (String url : item.getImageUrls()) {
-                if (url.startsWith("/api/")) {
-                    // Convert relative URL to absolute URL
-                    absoluteUrls.add("http://localhost:" + serverPort + url);
-                } else {
-                    absoluteUrls.add(url);
+                absoluteUrls.add(toAbsoluteUrl(url));
+            }
+        }
+
+        return new ItemResponse(
+            item.getId(),
+            item.getTitle(),
+            item.getDescription(),
+            item.getCategory(),
+            item.getLocation(),
+            item.getCondition(),
+            absoluteUrls,
+            item.getIsReserved(),
+            username != null && username.equals(item.getUser().getUsername()),
+            item.getCreatedAt().toString()
+        );
+    }
+
+    private List<ItemResponse> createItemResponses(
+        List<Item> items,
+        String username
+    ) {
+        return items
+            .stream()
+            .map(item -> createItemResponse(item, username))
+            .toList();
+    }
+
+    private List<ItemResponse> createSummaryResponses(
+        List<ItemSummary> summaries,
+        String username
+    ) {
+        return createSummaryResponses(summaries, username, ItemFields.ALL);
+    }
+
+    /**
+     * Render projected list rows, loading the images of all rows with one
+     * query unless the fieldset leaves them out
+     */
+    private List<ItemResponse> createSummaryResponses(
+        List<ItemSummary> summaries,
+        String username,
+        ItemFields fields
+    ) {
+        if (summaries.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, List<String>> imagesByItem = new HashMap<>();
+        if (fields.withImages()) {
+            for (List<Long> chunk : chunks(
+                summaries.stream().map(ItemSummary::id).toList()
+            )) {
+                for (ItemImage image : itemRepository.findImagesByItemIds(
+                    chunk
+                )) {
+                    imagesByItem
+                        .computeIfAbsent(image.itemId(), id ->
+                            new ArrayList<>()
+                        )
+                        .add(toAbsoluteUrl(image.imageUrl()));
                 }
             }
         }
-        itemMap.put("imageUrls", absoluteUrls);
 
-        itemMap.put("isReserved", item.getIsReserved());
-        itemMap.put(
-            "isMyItem",
-            username != null && username.equals(item.getUser().getUsername())
+        List<ItemResponse> responses = new ArrayList<>(summaries.size());
+        for (ItemSummary summary : summaries) {
+            responses.add(
+                new ItemResponse(
+                    summary.id(),
+                    summary.title(),
+                    summary.description(),
+                    summary.category(),
+                    summary.location(),
+                    summary.condition(),
+                    imagesByItem.getOrDefault(summary.id(), List.of()),
+                    summary.isReserved(),
+                    username != null && username.equals(summary.ownerUsername()),
+                    summary.createdAt().toString()
+                )
+            );
+        }
+        return responses;
+    }
+
+    private Page<ItemResponse> createResponsePage(
+        Page<ItemSummary> page,
+        String username,
+        ItemFields fields
+    ) {
+        return new PageImpl<>(
+            createSummaryResponses(page.getContent(), username, fields),
+            page.getPageable(),
+            page.getTotalElements()
         );
-        itemMap.put("datePosted", item.getCreatedAt().toString());
-        return itemMap;
+    }
+
+    // Convert relative URLs to absolute URLs for private B2 bucket
+    private String toAbsoluteUrl(String url) {
+        return url.startsWith("/api/")
+            ? "http://localhost:" + serverPort + url
+            : url;
     }
 
     @DeleteMapping("/{id}")
@@ -535,6 +1593,11 @@ public class ItemController {
 
             // Delete item from database
             itemRepository.delete(item);
+            itemSearchIndex.remove(id);
+            itemFacetService.remove(id);
+            itemSuggestService.remove(id);
+            itemListCache.invalidateAll();
+            itemEventService.itemDeleted(id, item.getCategory());
 
             response.put("success", true);
             response.put("message", "Artikel erfolgreich gelöscht");
@@ -590,8 +1653,10 @@ public class ItemController {
             item.setCategory(category);
             item.setLocation(location);
             item.setCondition(condition);
+            geocodingService.applyCoordinates(item);
 
             // Handle image updates (add new images to existing ones)
+            List<String> newImageUrls = new ArrayList<>();
             if (images != null && images.length > 0) {
                 // Get current images
                 List<String> currentImageUrls = item.getImageUrls() != null
@@ -606,27 +1671,8 @@ public class ItemController {
                 }
 
                 // Upload new images
-                List<String> newImageUrls = new ArrayList<>();
                 try {
-                    for (MultipartFile img : images) {
-                        if (!img.isEmpty()) {
-                            String fileName =
-                                "item_" +
-                                System.currentTimeMillis() +
-                                "_" +
-                                img.getOriginalFilename();
-                            fileStorageService.uploadFile(img, fileName);
-                            String imageUrl = fileStorageService.getDownloadUrl(
-                                fileName
-                            );
-                            // Convert relative URL to absolute URL for frontend
-                            if (imageUrl.startsWith("/api/")) {
-                                imageUrl =
-                                    "http://localhost:" + serverPort + imageUrl;
-                            }
-                            newImageUrls.add(imageUrl);
-                        }
-                    }
+                    newImageUrls.addAll(uploadImages(images));
                 } catch (Exception e) {
                     response.put("success", false);
                     response.put(
@@ -642,7 +1688,12 @@ public class ItemController {
             }
 
             // Save updated item
-            Item savedItem = itemRepository.save(item);
+            Item savedItem = saveWithImages(item, newImageUrls);
+            itemSearchIndex.index(savedItem);
+            itemFacetService.index(savedItem);
+            itemSuggestService.index(savedItem);
+            itemListCache.invalidateAll();
+            itemEventService.itemUpdated(savedItem);
 
             response.put("success", true);
             response.put("message", "Artikel erfolgreich aktualisiert");
@@ -704,25 +1755,7 @@ public class ItemController {
             // Upload new images
             List<String> newImageUrls = new ArrayList<>();
             try {
-                for (MultipartFile img : images) {
-                    if (!img.isEmpty()) {
-                        String fileName =
-                            "item_" +
-                            System.currentTimeMillis() +
-                            "_" +
-                            img.getOriginalFilename();
-                        fileStorageService.uploadFile(img, fileName);
-                        String imageUrl = fileStorageService.getDownloadUrl(
-                            fileName
-                        );
-                        // Convert relative URL to absolute URL for frontend
-                        if (imageUrl.startsWith("/api/")) {
-                            imageUrl =
-                                "http://localhost:" + serverPort + imageUrl;
-                        }
-                        newImageUrls.add(imageUrl);
-                    }
-                }
+                newImageUrls.addAll(uploadImages(images));
             } catch (Exception e) {
                 response.put("success", false);
                 response.put(
@@ -737,7 +1770,9 @@ public class ItemController {
             item.setImageUrls(currentImageUrls);
 
             // Save updated item
-            Item savedItem = itemRepository.save(item);
+            Item savedItem = saveWithImages(item, newImageUrls);
+            itemListCache.invalidateAll();
+            itemEventService.itemUpdated(savedItem);
 
             response.put("success", true);
             response.put("message", "Bilder erfolgreich hinzugefügt");
@@ -790,6 +1825,8 @@ public class ItemController {
                 currentUrls.remove(imageUrl);
                 item.setImageUrls(currentUrls);
                 itemRepository.save(item);
+                itemListCache.invalidateAll();
+                itemEventService.itemUpdated(item);
 
                 // Delete from B2 storage
                 try {
@@ -825,7 +1862,7 @@ public class ItemController {
         }
     }
 
-    private Map<String, Object> createItemResponse(
+    private ItemResponse createItemResponse(
         Item item,
         User currentUser
     ) {
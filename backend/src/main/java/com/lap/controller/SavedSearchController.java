@@ -0,0 +1,299 @@
+package com.lap.controller;
+
+import com.lap.entity.SavedSearch;
+import com.lap.entity.SavedSearchMatch;
+import com.lap.entity.User;
+import com.lap.repository.SavedSearchMatchRepository;
+import com.lap.repository.SavedSearchRepository;
+import com.lap.repository.UserRepository;
+import com.lap.service.SavedSearchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/saved-searches")
+@CrossOrigin(origins = "*")
+public class SavedSearchController {
+
+    private static final int MAX_INBOX_PAGE_SIZE = 100;
+
+    @Autowired
+    private SavedSearchRepository savedSearchRepository;
+
+    @Autowired
+    private SavedSearchMatchRepository savedSearchMatchRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SavedSearchService savedSearchService;
+
+    @PostMapping("/create")
+    public ResponseEntity<Map<String, Object>> createSavedSearch(
+        @RequestParam(required = false) String query,
+        @RequestParam(required = false) String category,
+        @RequestParam(required = false) String location,
+        Authentication authentication
+    ) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            String username = authentication.getName();
+            Optional<User> userOpt = userRepository.findByUsername(username);
+            if (!userOpt.isPresent()) {
+                response.put("success", false);
+                response.put("error", "Benutzer nicht gefunden");
+                return ResponseEntity.badRequest().body(response);
+            }
+
+            if (!SavedSearchService.hasCriteria(query, category, location)) {
+                response.put("success", false);
+                response.put(
+                    "error",
+                    "Suchbegriff, Kategorie oder Standort ist erforderlich"
+                );
+                return ResponseEntity.badRequest().body(response);
+            }
+
+            if (
+                savedSearchRepository.countByUserUsername(username) >=
+                SavedSearchService.MAX_SAVED_SEARCHES_PER_USER
+            ) {
+                response.put("success", false);
+                response.put(
+                    "error",
+                    "Maximal " +
+                    SavedSearchService.MAX_SAVED_SEARCHES_PER_USER +
+                    " gespeicherte Suchen erlaubt"
+                );
+                return ResponseEntity.badRequest().body(response);
+            }
+
+            SavedSearch savedSearch = savedSearchRepository.save(
+                new SavedSearch(userOpt.get(), query, category, location)
+            );
+            savedSearchService.register(savedSearch);
+
+            response.put("success", true);
+            response.put("message", "Suche gespeichert");
+            response.put("data", createSavedSearchResponse(savedSearch));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put(
+                "error",
+                "Fehler beim Speichern der Suche: " + e.getMessage()
+            );
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getSavedSearches(
+        Authentication authentication
+    ) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            List<SavedSearch> savedSearches =
+                savedSearchRepository.findByUserUsernameOrderByCreatedAtDesc(
+                    authentication.getName()
+                );
+
+            List<Map<String, Object>> savedSearchList = new ArrayList<>();
+            for (SavedSearch savedSearch : savedSearches) {
+                savedSearchList.add(createSavedSearchResponse(savedSearch));
+            }
+
+            response.put("success", true);
+            response.put("data", savedSearchList);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put(
+                "error",
+                "Failed to fetch saved searches: " + e.getMessage()
+            );
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> deleteSavedSearch(
+        @PathVariable Long id,
+        Authentication authentication
+    ) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            Optional<SavedSearch> savedSearchOpt =
+                savedSearchRepository.findByIdAndUserUsername(
+                    id,
+                    authentication.getName()
+                );
+            if (!savedSearchOpt.isPresent()) {
+                response.put("success", false);
+                response.put("error", "Gespeicherte Suche nicht gefunden");
+                return ResponseEntity.badRequest().body(response);
+            }
+
+            savedSearchRepository.delete(savedSearchOpt.get());
+            savedSearchService.unregister(id);
+
+            response.put("success", true);
+            response.put("message", "Gespeicherte Suche gelöscht");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put(
+                "error",
+                "Fehler beim Löschen der Suche: " + e.getMessage()
+            );
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * New items that matched the user's saved searches, newest first
+     */
+    @GetMapping("/inbox")
+    public ResponseEntity<Map<String, Object>> getInbox(
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "20") int size,
+        Authentication authentication
+    ) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            String username = authentication.getName();
+            List<SavedSearchMatch> matches = savedSearchMatchRepository.findInbox(
+                username,
+                PageRequest.of(
+                    Math.max(page, 0),
+                    Math.max(1, Math.min(size, MAX_INBOX_PAGE_SIZE))
+                )
+            );
+
+            List<Map<String, Object>> entries = new ArrayList<>();
+            for (SavedSearchMatch match : matches) {
+                entries.add(createMatchResponse(match));
+            }
+
+            Map<String, Object> inbox = new HashMap<>();
+            inbox.put("matches", entries);
+            inbox.put(
+                "unreadCount",
+                savedSearchMatchRepository.countByUserUsernameAndIsReadFalse(
+                    username
+                )
+            );
+
+            response.put("success", true);
+            response.put("data", inbox);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", "Failed to fetch inbox: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @PostMapping("/inbox/read")
+    public ResponseEntity<Map<String, Object>> markInboxRead(
+        Authentication authentication
+    ) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            int updated = savedSearchMatchRepository.markAllRead(
+                authentication.getName()
+            );
+
+            response.put("success", true);
+            response.put("updated", updated);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", "Failed to update inbox: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @PostMapping("/inbox/{matchId}/read")
+    public ResponseEntity<Map<String, Object>> markMatchRead(
+        @PathVariable Long matchId,
+        Authentication authentication
+    ) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            int updated = savedSearchMatchRepository.markRead(
+                matchId,
+                authentication.getName()
+            );
+            if (updated == 0) {
+                response.put("success", false);
+                response.put("error", "Eintrag nicht gefunden");
+                return ResponseEntity.badRequest().body(response);
+            }
+
+            response.put("success", true);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("error", "Failed to update inbox: " + e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    private Map<String, Object> createSavedSearchResponse(
+        SavedSearch savedSearch
+    ) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", savedSearch.getId());
+        response.put("query", savedSearch.getQuery());
+        response.put("category", savedSearch.getCategory());
+        response.put("location", savedSearch.getLocation());
+        response.put(
+            "createdAt",
+            savedSearch.getCreatedAt() != null
+                ? savedSearch.getCreatedAt().toString()
+                : null
+        );
+        return response;
+    }
+
+    private Map<String, Object> createMatchResponse(SavedSearchMatch match) {
+        Map<String, Object> item = new HashMap<>();
+        item.put("id", match.getItem().getId());
+        item.put("title", match.getItem().getTitle());
+        item.put("category", match.getItem().getCategory());
+        item.put("location", match.getItem().getLocation());
+        item.put("isReserved", match.getItem().getIsReserved());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", match.getId());
+        response.put(
+            "savedSearch",
+            createSavedSearchResponse(match.getSavedSearch())
+        );
+        response.put("item", item);
+        response.put("isRead", match.getIsRead());
+        response.put(
+            "matchedAt",
+            match.getCreatedAt() != null
+                ? match.getCreatedAt().toString()
+                : null
+        );
+        return response;
+    }
+}
@@ -0,0 +1,13 @@
+package com.lap.dto;
+
+/**
+ * Facet columns of one item, loaded by ItemRepository.findAllFacetValues to
+ * build the facet counts in ItemFacetService
+ */
+public record ItemFacetValues(
+    Long itemId,
+    String category,
+    String location,
+    String condition,
+    Boolean isReserved
+) {}
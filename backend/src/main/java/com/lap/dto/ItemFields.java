@@ -0,0 +1,126 @@
+package com.lap.dto;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Sparse fieldset requested with ?fields=, e.g.
+ * "fields=title,firstImageUrl,isReserved". Decides which columns the list
+ * queries load and which properties the rendered items contain; the id is
+ * always included.
+ */
+public record ItemFields(Set<String> names) {
+    /**
+     * Property names of ItemResponse, plus firstImageUrl for list views
+     * that only show one picture
+     */
+    public static final List<String> NAMES = List.of(
+        "id",
+        "title",
+        "description",
+        "category",
+        "location",
+        "condition",
+        "imageUrls",
+        "firstImageUrl",
+        "isReserved",
+        "isMyItem",
+        "datePosted"
+    );
+
+    /**
+     * No fields parameter: the full ItemResponse
+     */
+    public static final ItemFields ALL = new ItemFields(null);
+
+    /**
+     * @throws IllegalArgumentException for unknown field names
+     */
+    public static ItemFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+
+        Set<String> names = new TreeSet<>();
+        names.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!NAMES.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            names.add(name);
+        }
+        return new ItemFields(names);
+    }
+
+    public boolean isAll() {
+        return names == null;
+    }
+
+    public boolean includes(String name) {
+        return names == null || names.contains(name);
+    }
+
+    public boolean withDescription() {
+        return includes("description");
+    }
+
+    public boolean withImages() {
+        return includes("imageUrls") || includes("firstImageUrl");
+    }
+
+    /**
+     * Canonical form for cache keys and ETags
+     */
+    public String key() {
+        return names == null ? "*" : String.join(",", names);
+    }
+
+    /**
+     * The item itself for ALL, otherwise a map of the requested fields
+     */
+    public Object render(ItemResponse item) {
+        if (names == null) {
+            return item;
+        }
+
+        Map<String, Object> fields = new LinkedHashMap<>();
+        for (String name : NAMES) {
+            if (names.contains(name)) {
+                fields.put(name, value(item, name));
+            }
+        }
+        return fields;
+    }
+
+    public List<Object> render(List<ItemResponse> items) {
+        return items.stream().map(this::render).toList();
+    }
+
+    private static Object value(ItemResponse item, String name) {
+        return switch (name) {
+            case "id" -> item.id();
+            case "title" -> item.title();
+            case "description" -> item.description();
+            case "category" -> item.category();
+            case "location" -> item.location();
+            case "condition" -> item.condition();
+            case "imageUrls" -> item.imageUrls();
+            case "firstImageUrl" -> item.imageUrls().isEmpty()
+                ? null
+                : item.imageUrls().get(0);
+            case "isReserved" -> item.isReserved();
+            case "isMyItem" -> item.isMyItem();
+            case "datePosted" -> item.datePosted();
+            default -> throw new IllegalArgumentException(
+                "Unknown field: " + name
+            );
+        };
+    }
+}
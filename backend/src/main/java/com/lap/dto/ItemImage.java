@@ -0,0 +1,6 @@
+package com.lap.dto;
+
+/**
+ * One row of the item_images collection table
+ */
+public record ItemImage(Long itemId, String imageUrl) {}
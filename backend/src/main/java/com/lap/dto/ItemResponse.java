@@ -0,0 +1,20 @@
+package com.lap.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+
+/**
+ * Item as returned by the item endpoints
+ */
+public record ItemResponse(
+    Long id,
+    String title,
+    String description,
+    String category,
+    String location,
+    String condition,
+    List<String> imageUrls,
+    @JsonProperty("isReserved") Boolean isReserved,
+    @JsonProperty("isMyItem") boolean isMyItem,
+    String datePosted
+) {}
@@ -0,0 +1,19 @@
+package com.lap.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of the item columns shown in list views, filled by
+ * JPQL constructor expressions in ItemRepository without loading entities
+ */
+public record ItemSummary(
+    Long id,
+    String title,
+    String description,
+    String category,
+    String location,
+    String condition,
+    Boolean isReserved,
+    String ownerUsername,
+    LocalDateTime createdAt
+) {}
@@ -0,0 +1,9 @@
+package com.lap.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Newest updatedAt and row count of a set of items, used as change marker
+ * for the ETags of item reads
+ */
+public record ItemVersion(LocalDateTime lastModified, long count) {}
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import org.hibernate.annotations.BatchSize;
 
 @Entity
 @Table(name = "items")
@@ -40,7 +41,9 @@ public class Item {
     @Column(nullable = false)
     private String condition;
 
+    // Initialized for up to 100 items at once when a list is rendered
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(
         name = "item_images",
         joinColumns = @JoinColumn(name = "item_id")
@@ -51,6 +54,13 @@ public class Item {
     @Column(name = "is_reserved")
     private Boolean isReserved = false;
 
+    // Geocoded from location by GeocodingService, null if unknown
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @Column(name = "longitude")
+    private Double longitude;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -155,6 +165,9 @@ public class Item {
 
     public void setImageUrls(List<String> imageUrls) {
         this.imageUrls = imageUrls;
+        // Collection changes alone do not trigger @PreUpdate, but the item
+        // ETag depends on updatedAt
+        this.updatedAt = LocalDateTime.now();
     }
 
     public Boolean getIsReserved() {
@@ -165,6 +178,22 @@ public class Item {
         this.isReserved = isReserved;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     public User getUser() {
         return user;
     }
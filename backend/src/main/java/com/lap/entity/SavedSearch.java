@@ -0,0 +1,109 @@
+package com.lap.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDateTime;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * A search a user wants to be notified about. New items are matched
+ * against it by SavedSearchService; any of query, category and location
+ * may be empty, but not all of them.
+ */
+@Entity
+@Table(name = "saved_searches")
+public class SavedSearch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @Size(max = 200, message = "Suchbegriff muss weniger als 200 Zeichen haben")
+    @Column(length = 200)
+    private String query;
+
+    @Column
+    private String category;
+
+    @Column
+    private String location;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public SavedSearch() {}
+
+    public SavedSearch(
+        User user,
+        String query,
+        String category,
+        String location
+    ) {
+        this.user = user;
+        this.query = query;
+        this.category = category;
+        this.location = location;
+    }
+
+    // JPA lifecycle methods
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,110 @@
+package com.lap.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * Inbox entry: a new item that matched one of a user's saved searches
+ */
+@Entity
+@Table(
+    name = "saved_search_matches",
+    uniqueConstraints = @UniqueConstraint(
+        columnNames = { "saved_search_id", "item_id" }
+    )
+)
+public class SavedSearchMatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "saved_search_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private SavedSearch savedSearch;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Item item;
+
+    // Owner of the saved search, so the inbox is read without a join
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @Column(name = "is_read")
+    private Boolean isRead = false;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public SavedSearchMatch() {}
+
+    public SavedSearchMatch(SavedSearch savedSearch, Item item, User user) {
+        this.savedSearch = savedSearch;
+        this.item = item;
+        this.user = user;
+        this.isRead = false;
+    }
+
+    // JPA lifecycle methods
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public SavedSearch getSavedSearch() {
+        return savedSearch;
+    }
+
+    public void setSavedSearch(SavedSearch savedSearch) {
+        this.savedSearch = savedSearch;
+    }
+
+    public Item getItem() {
+        return item;
+    }
+
+    public void setItem(Item item) {
+        this.item = item;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    public Boolean getIsRead() {
+        return isRead;
+    }
+
+    public void setIsRead(Boolean isRead) {
+        this.isRead = isRead;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
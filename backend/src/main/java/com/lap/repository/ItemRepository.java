@@ -1,26 +1,54 @@
 package com.lap.repository;
 
+import com.lap.dto.ItemFacetValues;
+import com.lap.dto.ItemImage;
+import com.lap.dto.ItemSummary;
+import com.lap.dto.ItemVersion;
 import com.lap.entity.Item;
 import com.lap.entity.User;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    // List queries load the owner with the same SELECT (EntityGraph); the
+    // image collections are batch-fetched (@BatchSize on Item.imageUrls)
+    // and native queries rely on @BatchSize on User, so rendering a list
+    // costs a constant number of queries
+
+    @Override
+    @EntityGraph(attributePaths = "user")
+    Page<Item> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = "user")
     List<Item> findByCategory(String category);
 
+    @EntityGraph(attributePaths = "user")
     List<Item> findByUser(User user);
 
+    @EntityGraph(attributePaths = "user")
     List<Item> findByIsReserved(Boolean isReserved);
 
+    @EntityGraph(attributePaths = "user")
     @Query(
         "SELECT i FROM Item i WHERE i.title LIKE %:keyword% OR i.description LIKE %:keyword%"
     )
     List<Item> findByKeyword(@Param("keyword") String keyword);
 
+    @EntityGraph(attributePaths = "user")
     @Query(
         "SELECT i FROM Item i WHERE i.category = :category AND (i.title LIKE %:keyword% OR i.description LIKE %:keyword%)"
     )
@@ -29,7 +57,320 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
         @Param("keyword") String keyword
     );
 
+    @EntityGraph(attributePaths = "user")
     List<Item> findAllByOrderByCreatedAtDesc();
 
+    @EntityGraph(attributePaths = "user")
     List<Item> findByUserUsernameOrderByCreatedAtDesc(String username);
+
+    // Paginated variants - only one page of rows is fetched, the total is
+    // computed by a separate COUNT query
+
+    @EntityGraph(attributePaths = "user")
+    Page<Item> findByCategory(String category, Pageable pageable);
+
+    @EntityGraph(attributePaths = "user")
+    @Query(
+        value = "SELECT i FROM Item i WHERE i.title LIKE %:keyword% OR i.description LIKE %:keyword%",
+        countQuery = "SELECT COUNT(i) FROM Item i WHERE i.title LIKE %:keyword% OR i.description LIKE %:keyword%"
+    )
+    Page<Item> findByKeyword(
+        @Param("keyword") String keyword,
+        Pageable pageable
+    );
+
+    @EntityGraph(attributePaths = "user")
+    @Query(
+        value = "SELECT i FROM Item i WHERE i.category = :category AND (i.title LIKE %:keyword% OR i.description LIKE %:keyword%)",
+        countQuery = "SELECT COUNT(i) FROM Item i WHERE i.category = :category AND (i.title LIKE %:keyword% OR i.description LIKE %:keyword%)"
+    )
+    Page<Item> findByCategoryAndKeyword(
+        @Param("category") String category,
+        @Param("keyword") String keyword,
+        Pageable pageable
+    );
+
+    // Full-text search on the generated search_vector column (see
+    // V4__add_item_fulltext_search.sql), ranked by ts_rank. Pass an unsorted
+    // Pageable, the ORDER BY is part of the query
+
+    @Query(
+        value = "SELECT i.* FROM items i WHERE i.search_vector @@ websearch_to_tsquery('german', :query) " +
+        "ORDER BY ts_rank(i.search_vector, websearch_to_tsquery('german', :query)) DESC, i.created_at DESC, i.id DESC",
+        countQuery = "SELECT COUNT(*) FROM items i WHERE i.search_vector @@ websearch_to_tsquery('german', :query)",
+        nativeQuery = true
+    )
+    Page<Item> searchFullText(@Param("query") String query, Pageable pageable);
+
+    @Query(
+        value = "SELECT i.* FROM items i WHERE i.category = :category AND i.search_vector @@ websearch_to_tsquery('german', :query) " +
+        "ORDER BY ts_rank(i.search_vector, websearch_to_tsquery('german', :query)) DESC, i.created_at DESC, i.id DESC",
+        countQuery = "SELECT COUNT(*) FROM items i WHERE i.category = :category AND i.search_vector @@ websearch_to_tsquery('german', :query)",
+        nativeQuery = true
+    )
+    Page<Item> searchFullTextByCategory(
+        @Param("category") String category,
+        @Param("query") String query,
+        Pageable pageable
+    );
+
+    @Query(
+        value = "SELECT i.* FROM items i WHERE i.search_vector @@ websearch_to_tsquery('german', :query) " +
+        "ORDER BY ts_rank(i.search_vector, websearch_to_tsquery('german', :query)) DESC, i.created_at DESC, i.id DESC",
+        nativeQuery = true
+    )
+    List<Item> searchFullText(@Param("query") String query);
+
+    @Query(
+        value = "SELECT i.* FROM items i WHERE i.category = :category AND i.search_vector @@ websearch_to_tsquery('german', :query) " +
+        "ORDER BY ts_rank(i.search_vector, websearch_to_tsquery('german', :query)) DESC, i.created_at DESC, i.id DESC",
+        nativeQuery = true
+    )
+    List<Item> searchFullTextByCategory(
+        @Param("category") String category,
+        @Param("query") String query
+    );
+
+    // Ids of all matches, used to compute facet counts for a search
+
+    @Query(
+        value = "SELECT i.id FROM items i WHERE i.search_vector @@ websearch_to_tsquery('german', :query)",
+        nativeQuery = true
+    )
+    List<Long> searchFullTextIds(@Param("query") String query);
+
+    @Query(
+        "SELECT i.id FROM Item i WHERE i.title LIKE %:keyword% OR i.description LIKE %:keyword%"
+    )
+    List<Long> findIdsByKeyword(@Param("keyword") String keyword);
+
+    // Fuzzy search on the pg_trgm indexes (see V5__add_item_trigram_indexes.sql).
+    // The <% operator filters with pg_trgm.word_similarity_threshold, which
+    // has to be set in the same transaction via setWordSimilarityThreshold
+
+    @Query(
+        value = "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)",
+        nativeQuery = true
+    )
+    String setWordSimilarityThreshold(@Param("threshold") String threshold);
+
+    @Query(
+        value = "SELECT i.* FROM items i WHERE :query <% i.title OR :query <% i.description " +
+        "ORDER BY GREATEST(word_similarity(:query, i.title), word_similarity(:query, i.description)) DESC, i.created_at DESC, i.id DESC",
+        nativeQuery = true
+    )
+    List<Item> searchFuzzy(@Param("query") String query);
+
+    @Query(
+        value = "SELECT i.* FROM items i WHERE i.category = :category AND (:query <% i.title OR :query <% i.description) " +
+        "ORDER BY GREATEST(word_similarity(:query, i.title), word_similarity(:query, i.description)) DESC, i.created_at DESC, i.id DESC",
+        nativeQuery = true
+    )
+    List<Item> searchFuzzyByCategory(
+        @Param("category") String category,
+        @Param("query") String query
+    );
+
+    // Radius search (see V6__add_item_coordinates.sql). earth_box prunes
+    // candidates with the GiST index on ll_to_earth(latitude, longitude),
+    // earth_distance then drops the corners of the box. Nearest first; pass
+    // an unsorted Pageable. Radius in meters
+
+    @Query(
+        value = "SELECT i.id FROM items i " +
+        "WHERE earth_box(ll_to_earth(:latitude, :longitude), :radius) @> ll_to_earth(i.latitude, i.longitude) " +
+        "AND earth_distance(ll_to_earth(:latitude, :longitude), ll_to_earth(i.latitude, i.longitude)) <= :radius " +
+        "ORDER BY earth_distance(ll_to_earth(:latitude, :longitude), ll_to_earth(i.latitude, i.longitude)), i.created_at DESC, i.id DESC",
+        countQuery = "SELECT COUNT(*) FROM items i " +
+        "WHERE earth_box(ll_to_earth(:latitude, :longitude), :radius) @> ll_to_earth(i.latitude, i.longitude) " +
+        "AND earth_distance(ll_to_earth(:latitude, :longitude), ll_to_earth(i.latitude, i.longitude)) <= :radius",
+        nativeQuery = true
+    )
+    Page<Long> findIdsNear(
+        @Param("latitude") double latitude,
+        @Param("longitude") double longitude,
+        @Param("radius") double radius,
+        Pageable pageable
+    );
+
+    @Query(
+        value = "SELECT i.id FROM items i WHERE i.category = :category " +
+        "AND earth_box(ll_to_earth(:latitude, :longitude), :radius) @> ll_to_earth(i.latitude, i.longitude) " +
+        "AND earth_distance(ll_to_earth(:latitude, :longitude), ll_to_earth(i.latitude, i.longitude)) <= :radius " +
+        "ORDER BY earth_distance(ll_to_earth(:latitude, :longitude), ll_to_earth(i.latitude, i.longitude)), i.created_at DESC, i.id DESC",
+        countQuery = "SELECT COUNT(*) FROM items i WHERE i.category = :category " +
+        "AND earth_box(ll_to_earth(:latitude, :longitude), :radius) @> ll_to_earth(i.latitude, i.longitude) " +
+        "AND earth_distance(ll_to_earth(:latitude, :longitude), ll_to_earth(i.latitude, i.longitude)) <= :radius",
+        nativeQuery = true
+    )
+    Page<Long> findIdsNearByCategory(
+        @Param("category") String category,
+        @Param("latitude") double latitude,
+        @Param("longitude") double longitude,
+        @Param("radius") double radius,
+        Pageable pageable
+    );
+
+    // Geocoding backfill for items stored before coordinates existed
+
+    @Query("SELECT DISTINCT i.location FROM Item i WHERE i.latitude IS NULL")
+    List<String> findUngeocodedLocations();
+
+    @Modifying
+    @Query(
+        "UPDATE Item i SET i.latitude = :latitude, i.longitude = :longitude WHERE i.location = :location AND i.latitude IS NULL"
+    )
+    int updateCoordinatesByLocation(
+        @Param("location") String location,
+        @Param("latitude") double latitude,
+        @Param("longitude") double longitude
+    );
+
+    // Keyset (cursor) variants for infinite scrolling - seek past the last
+    // seen (createdAt, id) instead of skipping OFFSET rows. The redundant
+    // createdAt <= bound lets PostgreSQL start an index range scan on
+    // idx_items_created_at_id / idx_items_category_created_at_id (V7) at
+    // the cursor; the OR alone is only usable as a filter.
+
+    @EntityGraph(attributePaths = "user")
+    @Query(
+        "SELECT i FROM Item i ORDER BY i.createdAt DESC, i.id DESC"
+    )
+    List<Item> findFirstPage(Pageable pageable);
+
+    @EntityGraph(attributePaths = "user")
+    @Query(
+        "SELECT i FROM Item i WHERE i.createdAt <= :createdAt AND (i.createdAt < :createdAt OR i.id < :id) ORDER BY i.createdAt DESC, i.id DESC"
+    )
+    List<Item> findPageAfter(
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    @EntityGraph(attributePaths = "user")
+    @Query(
+        "SELECT i FROM Item i WHERE i.category = :category ORDER BY i.createdAt DESC, i.id DESC"
+    )
+    List<Item> findFirstPageByCategory(
+        @Param("category") String category,
+        Pageable pageable
+    );
+
+    @EntityGraph(attributePaths = "user")
+    @Query(
+        "SELECT i FROM Item i WHERE i.category = :category AND i.createdAt <= :createdAt AND (i.createdAt < :createdAt OR i.id < :id) ORDER BY i.createdAt DESC, i.id DESC"
+    )
+    List<Item> findPageAfterByCategory(
+        @Param("category") String category,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    // Projections for list views - read only the needed columns into
+    // ItemSummary records, skipping entity hydration and dirty-checking.
+    // Images are loaded separately with findImagesByItemIds. With
+    // withDescription = false the (possibly TOASTed) description is neither
+    // read nor transferred, for sparse fieldsets (?fields=)
+
+    @Query(
+        "SELECT new com.lap.dto.ItemSummary(i.id, i.title, CASE WHEN :withDescription = TRUE THEN i.description ELSE NULL END, i.category, i.location, i.condition, i.isReserved, u.username, i.createdAt) " +
+        "FROM Item i JOIN i.user u ORDER BY i.createdAt DESC, i.id DESC"
+    )
+    List<ItemSummary> findAllSummaries(
+        @Param("withDescription") boolean withDescription
+    );
+
+    default List<ItemSummary> findAllSummaries() {
+        return findAllSummaries(true);
+    }
+
+    // Rows are pulled from a server-side cursor in batches of the fetch
+    // size; must be consumed inside a transaction and closed afterwards
+    @QueryHints(
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200")
+    )
+    @Query(
+        "SELECT new com.lap.dto.ItemSummary(i.id, i.title, i.description, i.category, i.location, i.condition, i.isReserved, u.username, i.createdAt) " +
+        "FROM Item i JOIN i.user u ORDER BY i.createdAt DESC, i.id DESC"
+    )
+    Stream<ItemSummary> streamAllSummaries();
+
+    @Query(
+        value = "SELECT new com.lap.dto.ItemSummary(i.id, i.title, CASE WHEN :withDescription = TRUE THEN i.description ELSE NULL END, i.category, i.location, i.condition, i.isReserved, u.username, i.createdAt) " +
+        "FROM Item i JOIN i.user u",
+        countQuery = "SELECT COUNT(i) FROM Item i"
+    )
+    Page<ItemSummary> findSummaries(
+        @Param("withDescription") boolean withDescription,
+        Pageable pageable
+    );
+
+    @Query(
+        value = "SELECT new com.lap.dto.ItemSummary(i.id, i.title, CASE WHEN :withDescription = TRUE THEN i.description ELSE NULL END, i.category, i.location, i.condition, i.isReserved, u.username, i.createdAt) " +
+        "FROM Item i JOIN i.user u WHERE i.category = :category",
+        countQuery = "SELECT COUNT(i) FROM Item i WHERE i.category = :category"
+    )
+    Page<ItemSummary> findSummariesByCategory(
+        @Param("category") String category,
+        @Param("withDescription") boolean withDescription,
+        Pageable pageable
+    );
+
+    @Query(
+        "SELECT new com.lap.dto.ItemSummary(i.id, i.title, CASE WHEN :withDescription = TRUE THEN i.description ELSE NULL END, i.category, i.location, i.condition, i.isReserved, u.username, i.createdAt) " +
+        "FROM Item i JOIN i.user u WHERE u.username = :username ORDER BY i.createdAt DESC, i.id DESC"
+    )
+    List<ItemSummary> findSummariesByOwner(
+        @Param("username") String username,
+        @Param("withDescription") boolean withDescription
+    );
+
+    @Query(
+        "SELECT new com.lap.dto.ItemSummary(i.id, i.title, CASE WHEN :withDescription = TRUE THEN i.description ELSE NULL END, i.category, i.location, i.condition, i.isReserved, u.username, i.createdAt) " +
+        "FROM Item i JOIN i.user u WHERE i.id IN :ids"
+    )
+    List<ItemSummary> findSummariesByIds(
+        @Param("ids") Collection<Long> ids,
+        @Param("withDescription") boolean withDescription
+    );
+
+    // Change markers for ETags - a MAX/COUNT over the matching rows, answered
+    // without loading any item
+
+    @Query(
+        "SELECT new com.lap.dto.ItemVersion(MAX(i.updatedAt), COUNT(i)) FROM Item i"
+    )
+    ItemVersion findVersion();
+
+    @Query(
+        "SELECT new com.lap.dto.ItemVersion(MAX(i.updatedAt), COUNT(i)) FROM Item i WHERE i.category = :category"
+    )
+    ItemVersion findVersionByCategory(@Param("category") String category);
+
+    @Query(
+        "SELECT new com.lap.dto.ItemVersion(MAX(i.updatedAt), COUNT(i)) FROM Item i WHERE i.user.username = :username"
+    )
+    ItemVersion findVersionByOwner(@Param("username") String username);
+
+    @Query(
+        "SELECT new com.lap.dto.ItemVersion(MAX(i.updatedAt), COUNT(i)) FROM Item i WHERE i.id = :id"
+    )
+    ItemVersion findVersionById(@Param("id") Long id);
+
+    @Query(
+        "SELECT new com.lap.dto.ItemVersion(MAX(i.updatedAt), COUNT(i)) FROM Item i WHERE i.id IN :ids"
+    )
+    ItemVersion findVersionByIds(@Param("ids") Collection<Long> ids);
+
+    @Query(
+        "SELECT new com.lap.dto.ItemFacetValues(i.id, i.category, i.location, i.condition, i.isReserved) FROM Item i"
+    )
+    List<ItemFacetValues> findAllFacetValues();
+
+    @Query(
+        "SELECT new com.lap.dto.ItemImage(i.id, url) FROM Item i JOIN i.imageUrls url WHERE i.id IN :ids"
+    )
+    List<ItemImage> findImagesByItemIds(@Param("ids") Collection<Long> ids);
 }
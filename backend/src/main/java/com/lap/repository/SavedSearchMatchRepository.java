@@ -0,0 +1,43 @@
+package com.lap.repository;
+
+import com.lap.entity.SavedSearchMatch;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface SavedSearchMatchRepository
+    extends JpaRepository<SavedSearchMatch, Long> {
+    // Inbox page with the matched item and saved search in the same SELECT
+    @Query(
+        "SELECT m FROM SavedSearchMatch m JOIN FETCH m.item JOIN FETCH m.savedSearch " +
+        "WHERE m.user.username = :username ORDER BY m.createdAt DESC, m.id DESC"
+    )
+    List<SavedSearchMatch> findInbox(
+        @Param("username") String username,
+        Pageable pageable
+    );
+
+    long countByUserUsernameAndIsReadFalse(String username);
+
+    @Transactional
+    @Modifying
+    @Query(
+        "UPDATE SavedSearchMatch m SET m.isRead = true WHERE m.user.id = " +
+        "(SELECT u.id FROM User u WHERE u.username = :username) AND m.isRead = false"
+    )
+    int markAllRead(@Param("username") String username);
+
+    @Transactional
+    @Modifying
+    @Query(
+        "UPDATE SavedSearchMatch m SET m.isRead = true WHERE m.id = :id AND m.user.id = " +
+        "(SELECT u.id FROM User u WHERE u.username = :username)"
+    )
+    int markRead(@Param("id") Long id, @Param("username") String username);
+}
@@ -0,0 +1,16 @@
+package com.lap.repository;
+
+import com.lap.entity.SavedSearch;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Long> {
+    List<SavedSearch> findByUserUsernameOrderByCreatedAtDesc(String username);
+
+    Optional<SavedSearch> findByIdAndUserUsername(Long id, String username);
+
+    long countByUserUsername(String username);
+}
@@ -8,11 +8,14 @@ import com.backblaze.b2.client.exceptions.B2Exception;
 import com.backblaze.b2.client.structures.*;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,6 +30,8 @@ public class B2StorageService {
         B2StorageService.class
     );
 
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
     private final B2StorageClient b2StorageClient;
     private final String bucketName;
     private B2Bucket bucket;
@@ -72,6 +77,26 @@ public class B2StorageService {
      * Upload a file from MultipartFile
      */
     public B2FileVersion uploadFile(MultipartFile file, String fileName) {
+        try {
+            return uploadBytes(
+                file.getBytes(),
+                fileName,
+                file.getContentType()
+            );
+        } catch (IOException e) {
+            logger.error("Error uploading file: {}", e.getMessage());
+            throw new RuntimeException("File upload failed", e);
+        }
+    }
+
+    /**
+     * Upload content that is already in memory, e.g. a generated image
+     */
+    public B2FileVersion uploadBytes(
+        byte[] fileBytes,
+        String fileName,
+        String contentType
+    ) {
         try {
             initializeBucket();
             logger.info(
@@ -80,10 +105,9 @@ public class B2StorageService {
                 bucketName
             );
 
-            byte[] fileBytes = file.getBytes();
-            String contentType = file.getContentType() != null
-                ? file.getContentType()
-                : B2ContentTypes.APPLICATION_OCTET;
+            if (contentType == null) {
+                contentType = B2ContentTypes.APPLICATION_OCTET;
+            }
 
             B2ContentSource contentSource = B2ByteArrayContentSource.builder(
                 fileBytes
@@ -104,7 +128,7 @@ public class B2StorageService {
                 fileVersion.getFileName()
             );
             return fileVersion;
-        } catch (IOException | B2Exception e) {
+        } catch (B2Exception e) {
             logger.error("Error uploading file: {}", e.getMessage());
             throw new RuntimeException("File upload failed", e);
         }
@@ -209,6 +233,106 @@ public class B2StorageService {
         }
     }
 
+    /**
+     * Download file by name straight into the target through a fixed-size
+     * buffer, so memory per download does not depend on the file size and
+     * the first bytes are forwarded before the object is fully fetched
+     */
+    public void streamFileByName(String fileName, DownloadTarget target) {
+        streamFile(fileName, null, target);
+    }
+
+    /**
+     * Stream bytes first..last (inclusive) of a file; only that range is
+     * fetched from the bucket
+     */
+    public void streamFileRangeByName(
+        String fileName,
+        long first,
+        long last,
+        DownloadTarget target
+    ) {
+        streamFile(fileName, B2ByteRange.between(first, last), target);
+    }
+
+    /**
+     * Size of a file in bytes, looked up with a single-entry file name
+     * listing
+     */
+    public OptionalLong getFileSize(String fileName) {
+        try {
+            initializeBucket();
+            B2ListFileNamesRequest listRequest = B2ListFileNamesRequest.builder(
+                bucket.getBucketId()
+            )
+                .setStartFileName(fileName)
+                .setMaxFileCount(1)
+                .build();
+
+            for (B2FileVersion fileVersion : b2StorageClient.fileNames(
+                listRequest
+            )) {
+                return fileVersion.getFileName().equals(fileName)
+                    ? OptionalLong.of(fileVersion.getContentLength())
+                    : OptionalLong.empty();
+            }
+            return OptionalLong.empty();
+        } catch (B2Exception e) {
+            logger.error("Error getting file size: {}", e.getMessage());
+            throw new RuntimeException("File lookup failed", e);
+        }
+    }
+
+    private void streamFile(
+        String fileName,
+        B2ByteRange range,
+        DownloadTarget target
+    ) {
+        try {
+            initializeBucket();
+            logger.info(
+                "Streaming file: {} from bucket: {}",
+                fileName,
+                bucketName
+            );
+
+            B2DownloadByNameRequest.Builder requestBuilder =
+                B2DownloadByNameRequest.builder(bucketName, fileName);
+            if (range != null) {
+                requestBuilder.setRange(range);
+            }
+            B2DownloadByNameRequest downloadRequest = requestBuilder.build();
+
+            b2StorageClient.downloadByName(
+                downloadRequest,
+                (responseHeaders, inputStream) -> {
+                    // Unchecked, so the client does not retry a download
+                    // whose first bytes were already sent
+                    try {
+                        OutputStream outputStream = target.open(
+                            responseHeaders.getContentLength(),
+                            responseHeaders.getContentType()
+                        );
+                        byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+                        int bytesRead;
+                        while ((bytesRead = inputStream.read(buffer)) != -1) {
+                            outputStream.write(buffer, 0, bytesRead);
+                        }
+                        outputStream.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(
+                            "Failed to stream download",
+                            e
+                        );
+                    }
+                }
+            );
+        } catch (B2Exception e) {
+            logger.error("Error streaming file: {}", e.getMessage());
+            throw new RuntimeException("File download failed", e);
+        }
+    }
+
     /**
      * Download file by ID
      */
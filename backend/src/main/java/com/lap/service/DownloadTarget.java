@@ -0,0 +1,15 @@
+package com.lap.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Receiver of a streamed download. It is opened with the length and content
+ * type of the object before the first byte arrives, so the response headers
+ * can be sent ahead of the body.
+ */
+@FunctionalInterface
+public interface DownloadTarget {
+    OutputStream open(long contentLength, String contentType)
+        throws IOException;
+}
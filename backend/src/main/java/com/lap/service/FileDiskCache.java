@@ -0,0 +1,350 @@
+package com.lap.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Read-through cache of B2 files on local disk, bounded by a byte budget
+ * and evicting the least recently used files.
+ *
+ * Files are written to a temp file and moved into place atomically once
+ * complete, so a crash never leaves a partial entry. The last-modified
+ * time of a cached file is its last access, which lets the LRU order be
+ * rebuilt from the directory after a restart.
+ */
+@Service
+public class FileDiskCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        FileDiskCache.class
+    );
+
+    private static final String TEMP_SUFFIX = ".tmp";
+    // Larger files would push out too many others
+    private static final int MAX_ENTRY_FRACTION = 8;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxBytes;
+
+    // Cache file name -> size, in access order (least recently used first)
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(
+        16,
+        0.75f,
+        true
+    );
+    private long totalBytes = 0;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public FileDiskCache(
+        @Value("${file.cache.enabled:true}") boolean enabled,
+        @Value("${file.cache.path:./cache/files}") String path,
+        @Value("${file.cache.max-bytes:1073741824}") long maxBytes
+    ) {
+        this.enabled = enabled;
+        this.directory = Paths.get(path).toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+        if (enabled) {
+            loadEntries();
+        }
+    }
+
+    /**
+     * Cached copy of a file, marked as recently used
+     */
+    public Optional<Path> get(String fileName) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        String key = key(fileName);
+        synchronized (entries) {
+            if (entries.get(key) == null) {
+                missCount.incrementAndGet();
+                return Optional.empty();
+            }
+        }
+
+        Path path = directory.resolve(key);
+        try {
+            Files.setLastModifiedTime(
+                path,
+                FileTime.fromMillis(System.currentTimeMillis())
+            );
+        } catch (IOException e) {
+            // Deleted behind our back
+            remove(key);
+            missCount.incrementAndGet();
+            return Optional.empty();
+        }
+        hitCount.incrementAndGet();
+        return Optional.of(path);
+    }
+
+    /**
+     * Start caching a file; null when the cache is disabled or the temp
+     * file cannot be created
+     */
+    public Writer openWriter(String fileName) {
+        if (!enabled) {
+            return null;
+        }
+
+        String key = key(fileName);
+        Path tempFile = directory.resolve(
+            key + "." + UUID.randomUUID() + TEMP_SUFFIX
+        );
+        try {
+            return new Writer(key, tempFile, Files.newOutputStream(tempFile));
+        } catch (IOException e) {
+            logger.warn("Cannot write to file cache: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Drop a file, e.g. after it was deleted from storage
+     */
+    public void invalidate(String fileName) {
+        if (enabled) {
+            remove(key(fileName));
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("enabled", enabled);
+        statistics.put("hitCount", hitCount.get());
+        statistics.put("missCount", missCount.get());
+        synchronized (entries) {
+            statistics.put("entries", entries.size());
+            statistics.put("cachedBytes", totalBytes);
+        }
+        statistics.put("maxBytes", maxBytes);
+        return statistics;
+    }
+
+    /**
+     * Receives the content of one file. Commit publishes it; abort (or a
+     * failed write) discards it.
+     */
+    public final class Writer {
+
+        private final String key;
+        private final Path tempFile;
+        private final OutputStream outputStream;
+        private long size = 0;
+        private boolean failed = false;
+
+        private Writer(String key, Path tempFile, OutputStream outputStream) {
+            this.key = key;
+            this.tempFile = tempFile;
+            this.outputStream = outputStream;
+        }
+
+        /**
+         * Stream writing to the target and to this cache file. Cache write
+         * errors only disable caching, they never fail the target.
+         */
+        public OutputStream teeTo(OutputStream target) {
+            return new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    target.write(b);
+                    append(new byte[] { (byte) b }, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] buffer, int offset, int length)
+                    throws IOException {
+                    target.write(buffer, offset, length);
+                    append(buffer, offset, length);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    target.flush();
+                }
+            };
+        }
+
+        private void append(byte[] buffer, int offset, int length) {
+            if (failed) {
+                return;
+            }
+            try {
+                outputStream.write(buffer, offset, length);
+                size += length;
+            } catch (IOException e) {
+                logger.warn("File cache write failed: {}", e.getMessage());
+                failed = true;
+            }
+        }
+
+        /**
+         * Publish the file, or discard it if too large or incomplete
+         */
+        public void commit() {
+            try {
+                outputStream.close();
+            } catch (IOException e) {
+                failed = true;
+            }
+            if (failed || size > maxBytes / MAX_ENTRY_FRACTION) {
+                abort();
+                return;
+            }
+
+            try {
+                Files.move(
+                    tempFile,
+                    directory.resolve(key),
+                    StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING
+                );
+            } catch (IOException e) {
+                logger.warn("File cache publish failed: {}", e.getMessage());
+                abort();
+                return;
+            }
+            add(key, size);
+        }
+
+        public void abort() {
+            try {
+                outputStream.close();
+                Files.deleteIfExists(tempFile);
+            } catch (IOException e) {
+                logger.warn("Failed to discard cache file: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void add(String key, long size) {
+        List<String> evicted = new ArrayList<>();
+        synchronized (entries) {
+            Long previous = entries.put(key, size);
+            totalBytes += size - (previous != null ? previous : 0);
+
+            Iterator<Map.Entry<String, Long>> iterator = entries
+                .entrySet()
+                .iterator();
+            while (totalBytes > maxBytes && iterator.hasNext()) {
+                Map.Entry<String, Long> eldest = iterator.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                totalBytes -= eldest.getValue();
+                evicted.add(eldest.getKey());
+                iterator.remove();
+            }
+        }
+
+        for (String evictedKey : evicted) {
+            deleteQuietly(directory.resolve(evictedKey));
+        }
+    }
+
+    private void remove(String key) {
+        synchronized (entries) {
+            Long size = entries.remove(key);
+            if (size != null) {
+                totalBytes -= size;
+            }
+        }
+        deleteQuietly(directory.resolve(key));
+    }
+
+    /**
+     * Rebuild the index from the cache directory, oldest access first, and
+     * delete temp files left by an interrupted download
+     */
+    private void loadEntries() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> stream = Files.list(directory)) {
+                files = stream.filter(Files::isRegularFile).toList();
+            }
+
+            List<Path> cached = new ArrayList<>();
+            for (Path file : files) {
+                if (file.getFileName().toString().endsWith(TEMP_SUFFIX)) {
+                    deleteQuietly(file);
+                } else {
+                    cached.add(file);
+                }
+            }
+            cached.sort(Comparator.comparing(FileDiskCache::lastModified));
+            for (Path file : cached) {
+                add(file.getFileName().toString(), Files.size(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(
+                "Failed to open file cache " + directory,
+                e
+            );
+        }
+
+        logger.info(
+            "File cache at {}: {} files, {} of {} bytes",
+            directory,
+            entries.size(),
+            totalBytes,
+            maxBytes
+        );
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn(
+                "Failed to delete cache file {}: {}",
+                file,
+                e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * File names may contain slashes, so entries are stored under a hash
+     */
+    private static String key(String fileName) {
+        return DigestUtils.md5DigestAsHex(
+            fileName.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+}
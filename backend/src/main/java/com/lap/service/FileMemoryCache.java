@@ -0,0 +1,185 @@
+package com.lap.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Hot tier in front of the disk cache for small, frequently requested
+ * images such as item thumbnails and avatars. Contents live in direct
+ * (off-heap) buffers, so they add no GC pressure and are written to the
+ * socket without copying them into a heap array.
+ *
+ * Caffeine weighs entries by their size and admits them with W-TinyLFU:
+ * a new image only displaces resident ones if it was requested more
+ * often, so one-off downloads cannot flush out the front-page images.
+ * Evicted buffers are released by the GC once no response still writes
+ * them, so the JVM needs MaxDirectMemorySize above max-bytes.
+ *
+ * A file is only read into memory on its second request; the first one
+ * is served from disk with sendfile, or streamed from B2 into the disk
+ * cache. Scans over many distinct images thus allocate no direct memory
+ * that would soon be dropped again.
+ */
+@Service
+public class FileMemoryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        FileMemoryCache.class
+    );
+
+    private static final int REQUESTED_ONCE_SIZE = 10000;
+
+    private final Cache<String, ByteBuffer> cache;
+    // Files requested once while not resident
+    private final Cache<String, Boolean> requestedOnce;
+    private final boolean enabled;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+
+    public FileMemoryCache(
+        @Value("${file.memory-cache.enabled:true}") boolean enabled,
+        @Value("${file.memory-cache.max-bytes:67108864}") long maxBytes,
+        @Value(
+            "${file.memory-cache.max-entry-bytes:1048576}"
+        ) long maxEntryBytes
+    ) {
+        this.enabled = enabled;
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((String key, ByteBuffer buffer) ->
+                key.length() + buffer.capacity()
+            )
+            .recordStats()
+            .build();
+        this.requestedOnce = Caffeine.newBuilder()
+            .maximumSize(REQUESTED_ONCE_SIZE)
+            .build();
+        logger.info(
+            "File memory cache {} ({} bytes)",
+            enabled ? "enabled" : "disabled",
+            maxBytes
+        );
+    }
+
+    /**
+     * Content of a cached file, or null. The returned buffer has its own
+     * position, so concurrent responses do not interfere.
+     */
+    public ByteBuffer get(String fileName) {
+        if (!enabled) {
+            return null;
+        }
+        ByteBuffer buffer = cache.getIfPresent(fileName);
+        return buffer != null ? buffer.duplicate() : null;
+    }
+
+    /**
+     * Whether a file qualifies for this tier: a small image
+     */
+    public boolean accepts(String fileName, long size) {
+        return (
+            enabled &&
+            size <= maxEntryBytes &&
+            MediaTypeFactory.getMediaType(fileName)
+                .map(type -> "image".equals(type.getType()))
+                .orElse(false)
+        );
+    }
+
+    /**
+     * Content of a file that missed the cache: null on its first request,
+     * from then on read into a direct buffer and cached. Concurrent misses
+     * share one read. The caller should check accepts() first.
+     */
+    public ByteBuffer promote(String fileName, Path file) throws IOException {
+        if (requestedOnce.asMap().putIfAbsent(fileName, true) == null) {
+            return null;
+        }
+        requestedOnce.invalidate(fileName);
+
+        try {
+            return cache
+                .asMap()
+                .computeIfAbsent(fileName, key -> read(file))
+                .duplicate();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Count a request served without promote(), such as a B2 download, as
+     * the first request of the file
+     */
+    public void recordRequest(String fileName, long size) {
+        if (accepts(fileName, size)) {
+            requestedOnce.put(fileName, true);
+        }
+    }
+
+    public void invalidate(String fileName) {
+        cache.invalidate(fileName);
+        requestedOnce.invalidate(fileName);
+    }
+
+    private static ByteBuffer read(Path file) {
+        ByteBuffer buffer;
+        try (
+            FileChannel channel = FileChannel.open(
+                file,
+                StandardOpenOption.READ
+            )
+        ) {
+            buffer = ByteBuffer.allocateDirect(
+                Math.toIntExact(channel.size())
+            );
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading until full or end of file
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.flip();
+        return buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * Hit ratio and resident off-heap bytes
+     */
+    public Map<String, Object> getStatistics() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("enabled", enabled);
+        statistics.put("hitCount", stats.hitCount());
+        statistics.put("missCount", stats.missCount());
+        statistics.put("hitRate", stats.hitRate());
+        statistics.put("evictionCount", stats.evictionCount());
+        statistics.put("entries", cache.estimatedSize());
+        statistics.put(
+            "residentBytes",
+            cache
+                .policy()
+                .eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0))
+                .orElse(0L)
+        );
+        statistics.put("maxBytes", maxBytes);
+        return statistics;
+    }
+}
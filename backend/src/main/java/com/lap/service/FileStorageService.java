@@ -1,11 +1,18 @@
 package com.lap.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -18,54 +25,77 @@ public class FileStorageService {
 
     private final B2StorageService b2StorageService;
     private final LocalFileStorageService localFileStorageService;
-    private boolean b2Available = true;
+    private final FileDiskCache fileDiskCache;
+    private final FileMemoryCache fileMemoryCache;
+    private final ImageVariantService imageVariantService;
+    // Cleared by whichever upload thread sees B2 fail
+    private volatile boolean b2Available = true;
 
     @Autowired
     public FileStorageService(
         B2StorageService b2StorageService,
-        LocalFileStorageService localFileStorageService
+        LocalFileStorageService localFileStorageService,
+        FileDiskCache fileDiskCache,
+        FileMemoryCache fileMemoryCache,
+        ImageVariantService imageVariantService
     ) {
         this.b2StorageService = b2StorageService;
         this.localFileStorageService = localFileStorageService;
+        this.fileDiskCache = fileDiskCache;
+        this.fileMemoryCache = fileMemoryCache;
+        this.imageVariantService = imageVariantService;
         checkB2Availability();
     }
 
     /**
-     * Upload file - tries B2 first, falls back to local storage
+     * Upload file - tries B2 first, falls back to local storage. Images
+     * also get their resized variants.
      */
     public String uploadFile(MultipartFile file, String fileName) {
+        String uploaded;
         try {
-            if (b2Available) {
-                return b2StorageService.uploadFileWrapper(file, fileName);
-            }
+            uploaded = b2Available
+                ? b2StorageService.uploadFileWrapper(file, fileName)
+                : null;
         } catch (Exception e) {
             logger.warn(
                 "B2 upload failed, falling back to local storage: {}",
                 e.getMessage()
             );
             b2Available = false;
+            uploaded = null;
+        }
+        if (uploaded == null) {
+            uploaded = localFileStorageService.uploadFile(file, fileName);
         }
 
-        return localFileStorageService.uploadFile(file, fileName);
+        storeVariants(file, fileName);
+        return uploaded;
     }
 
     /**
-     * Upload image with validation
+     * Upload image with validation, plus its resized variants
      */
     public String uploadImage(MultipartFile file, String fileName) {
+        String uploaded;
         try {
-            if (b2Available) {
-                return b2StorageService.uploadImageWrapper(file, fileName);
-            }
+            uploaded = b2Available
+                ? b2StorageService.uploadImageWrapper(file, fileName)
+                : null;
         } catch (Exception e) {
             logger.warn(
                 "B2 image upload failed, falling back to local storage: {}",
                 e.getMessage()
             );
             b2Available = false;
+            uploaded = null;
+        }
+        if (uploaded == null) {
+            uploaded = localFileStorageService.uploadImage(file, fileName);
         }
 
-        return localFileStorageService.uploadImage(file, fileName);
+        storeVariants(file, fileName);
+        return uploaded;
     }
 
     /**
@@ -89,6 +119,36 @@ public class FileStorageService {
      * Delete file
      */
     public void deleteFile(String fileName) {
+        for (String variant : imageVariantService.variantNames(fileName)) {
+            try {
+                deleteStoredFile(variant);
+            } catch (Exception e) {
+                logger.warn(
+                    "Failed to delete variant {}: {}",
+                    variant,
+                    e.getMessage()
+                );
+            }
+        }
+        imageVariantService.forget(fileName);
+        deleteStoredFile(fileName);
+    }
+
+    /**
+     * Name to serve for a download with ?w=: the nearest resized variant,
+     * or the file itself
+     */
+    public String resolveVariant(String fileName, Integer width) {
+        return imageVariantService.resolve(
+            fileName,
+            width,
+            this::fileExists
+        );
+    }
+
+    private void deleteStoredFile(String fileName) {
+        fileMemoryCache.invalidate(fileName);
+        fileDiskCache.invalidate(fileName);
         try {
             if (b2Available) {
                 b2StorageService.deleteFileByName(fileName);
@@ -105,6 +165,46 @@ public class FileStorageService {
         localFileStorageService.deleteFileByName(fileName);
     }
 
+    /**
+     * Generate and store the resized variants of an image. Failures are
+     * logged only; the original stays downloadable without them.
+     */
+    private void storeVariants(MultipartFile file, String fileName) {
+        Map<String, byte[]> variants = imageVariantService.createVariants(
+            file,
+            fileName
+        );
+        try {
+            for (Map.Entry<String, byte[]> variant : variants.entrySet()) {
+                uploadBytes(variant.getValue(), variant.getKey(), "image/jpeg");
+            }
+            imageVariantService.stored(variants.keySet());
+        } catch (Exception e) {
+            logger.warn(
+                "Failed to store variants of {}: {}",
+                fileName,
+                e.getMessage()
+            );
+        }
+    }
+
+    private void uploadBytes(byte[] content, String fileName, String type) {
+        try {
+            if (b2Available) {
+                b2StorageService.uploadBytes(content, fileName, type);
+                return;
+            }
+        } catch (Exception e) {
+            logger.warn(
+                "B2 upload failed, falling back to local storage: {}",
+                e.getMessage()
+            );
+            b2Available = false;
+        }
+
+        localFileStorageService.uploadBytes(content, fileName);
+    }
+
     /**
      * Check if file exists
      */
@@ -125,22 +225,138 @@ public class FileStorageService {
     }
 
     /**
-     * Download file content
+     * Content of a hot image held in memory, or null
      */
-    public byte[] downloadFile(String fileName) {
+    public ByteBuffer getFileFromMemory(String fileName) {
+        return fileMemoryCache.get(fileName);
+    }
+
+    /**
+     * Move a small image that is requested again from disk into the
+     * memory tier; null if it does not qualify (yet) or cannot be read
+     */
+    public ByteBuffer promoteToMemory(
+        String fileName,
+        FileSystemResource file
+    ) {
         try {
-            if (b2Available) {
-                return b2StorageService.downloadFileByName(fileName);
+            if (!fileMemoryCache.accepts(fileName, file.contentLength())) {
+                return null;
+            }
+            return fileMemoryCache.promote(
+                fileName,
+                file.getFile().toPath()
+            );
+        } catch (IOException | ArithmeticException e) {
+            logger.warn(
+                "Failed to cache {} in memory: {}",
+                fileName,
+                e.getMessage()
+            );
+            return null;
+        }
+    }
+
+    /**
+     * Copy of a B2 file in the local disk cache
+     */
+    public Optional<FileSystemResource> getCachedFile(String fileName) {
+        return fileDiskCache.get(fileName).map(FileSystemResource::new);
+    }
+
+    /**
+     * Stream a file from B2 into the target without buffering it, storing
+     * a copy in the disk cache on the way
+     *
+     * @return false if B2 is not available or failed before the target was
+     *     opened; the file then has to be served from local storage
+     */
+    public boolean streamFromB2(String fileName, DownloadTarget target) {
+        if (!b2Available) {
+            return false;
+        }
+
+        AtomicLong openedLength = new AtomicLong(-1);
+        FileDiskCache.Writer cacheWriter = fileDiskCache.openWriter(fileName);
+        try {
+            b2StorageService.streamFileByName(
+                fileName,
+                (contentLength, contentType) -> {
+                    openedLength.set(contentLength);
+                    OutputStream outputStream = target.open(
+                        contentLength,
+                        contentType
+                    );
+                    return cacheWriter != null
+                        ? cacheWriter.teeTo(outputStream)
+                        : outputStream;
+                }
+            );
+            if (cacheWriter != null) {
+                cacheWriter.commit();
+                // The next request is served from the disk cache and
+                // already moves the file into memory
+                fileMemoryCache.recordRequest(fileName, openedLength.get());
+            }
+            return true;
+        } catch (RuntimeException e) {
+            if (cacheWriter != null) {
+                cacheWriter.abort();
+            }
+            if (openedLength.get() >= 0) {
+                // Part of the file may have been sent, no fallback possible
+                throw e;
             }
-        } catch (Exception e) {
             logger.warn(
                 "B2 download failed, trying local storage: {}",
                 e.getMessage()
             );
             b2Available = false;
+            return false;
+        }
+    }
+
+    /**
+     * Size of a file in B2
+     *
+     * @return empty if B2 is not available or does not have the file; it
+     *     then has to be served from local storage
+     */
+    public OptionalLong getB2FileSize(String fileName) {
+        if (!b2Available) {
+            return OptionalLong.empty();
+        }
+
+        try {
+            return b2StorageService.getFileSize(fileName);
+        } catch (RuntimeException e) {
+            logger.warn(
+                "B2 lookup failed, trying local storage: {}",
+                e.getMessage()
+            );
+            b2Available = false;
+            return OptionalLong.empty();
         }
+    }
 
-        return localFileStorageService.downloadFileByName(fileName);
+    /**
+     * Stream bytes first..last (inclusive) of a B2 file into the target
+     */
+    public void streamRangeFromB2(
+        String fileName,
+        long first,
+        long last,
+        DownloadTarget target
+    ) {
+        b2StorageService.streamFileRangeByName(fileName, first, last, target);
+    }
+
+    /**
+     * Local file as a resource, streamed from disk instead of being read
+     * into memory
+     */
+    public FileSystemResource getLocalFileResource(String fileName) {
+        return localFileStorageService.getFileResource(fileName);
     }
 
     /**
@@ -231,6 +447,8 @@ public class FileStorageService {
         Map<String, Object> status = new HashMap<>();
         status.put("currentStorage", getCurrentStorageType());
         status.put("b2Available", b2Available);
+        status.put("diskCache", fileDiskCache.getStatistics());
+        status.put("memoryCache", fileMemoryCache.getStatistics());
 
         try {
             status.put("storageInfo", getStorageInfo());
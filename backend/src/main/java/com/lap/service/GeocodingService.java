@@ -0,0 +1,174 @@
+package com.lap.service;
+
+import com.lap.entity.Item;
+import com.lap.repository.ItemRepository;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Resolves the free-text item location to coordinates using the bundled
+ * postal code / town table (geo/locations.csv), without any network calls.
+ * A four-digit postal code in the text wins, otherwise the longest leading
+ * run of words that names a known town.
+ */
+@Service
+public class GeocodingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        GeocodingService.class
+    );
+
+    private static final String LOCATIONS_FILE = "geo/locations.csv";
+    private static final Pattern POSTAL_CODE = Pattern.compile(
+        "\\b(\\d{4})\\b"
+    );
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private final Map<String, Coordinates> byPostalCode = new HashMap<>();
+    private final Map<String, Coordinates> byName = new HashMap<>();
+
+    public record Coordinates(double latitude, double longitude) {}
+
+    public GeocodingService() {
+        loadLocations();
+    }
+
+    /**
+     * Coordinates of a location, if it can be resolved
+     */
+    public Optional<Coordinates> geocode(String location) {
+        if (location == null || location.isBlank()) {
+            return Optional.empty();
+        }
+
+        Matcher postalCode = POSTAL_CODE.matcher(location);
+        while (postalCode.find()) {
+            Coordinates coordinates = byPostalCode.get(postalCode.group(1));
+            if (coordinates != null) {
+                return Optional.of(coordinates);
+            }
+        }
+
+        List<String> words = Arrays.stream(
+            normalize(POSTAL_CODE.matcher(location).replaceAll(" ")).split(" ")
+        )
+            .filter(word -> !word.isEmpty())
+            .toList();
+        for (int length = words.size(); length > 0; length--) {
+            Coordinates coordinates = byName.get(
+                String.join(" ", words.subList(0, length))
+            );
+            if (coordinates != null) {
+                return Optional.of(coordinates);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Set (or clear) the coordinates of an item from its location
+     */
+    public void applyCoordinates(Item item) {
+        Optional<Coordinates> coordinates = geocode(item.getLocation());
+        item.setLatitude(coordinates.map(Coordinates::latitude).orElse(null));
+        item.setLongitude(
+            coordinates.map(Coordinates::longitude).orElse(null)
+        );
+    }
+
+    /**
+     * Geocode items stored before coordinates existed, one UPDATE per
+     * distinct location
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillCoordinates() {
+        int updated = 0;
+        for (String location : itemRepository.findUngeocodedLocations()) {
+            Optional<Coordinates> coordinates = geocode(location);
+            if (coordinates.isPresent()) {
+                updated += itemRepository.updateCoordinatesByLocation(
+                    location,
+                    coordinates.get().latitude(),
+                    coordinates.get().longitude()
+                );
+            }
+        }
+
+        if (updated > 0) {
+            logger.info("Geocoded {} items", updated);
+        }
+    }
+
+    private void loadLocations() {
+        try (
+            BufferedReader reader = new BufferedReader(
+                new InputStreamReader(
+                    new ClassPathResource(LOCATIONS_FILE).getInputStream(),
+                    StandardCharsets.UTF_8
+                )
+            )
+        ) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split(";");
+                Coordinates coordinates = new Coordinates(
+                    Double.parseDouble(columns[2]),
+                    Double.parseDouble(columns[3])
+                );
+                byPostalCode.putIfAbsent(columns[0].trim(), coordinates);
+                byName.putIfAbsent(normalize(columns[1]), coordinates);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(
+                "Failed to load " + LOCATIONS_FILE,
+                e
+            );
+        }
+
+        logger.info(
+            "Loaded {} postal codes and {} place names for geocoding",
+            byPostalCode.size(),
+            byName.size()
+        );
+    }
+
+    /**
+     * Lower case without umlauts and punctuation, so "St. Pölten" and
+     * "st polten" match
+     */
+    private static String normalize(String text) {
+        return text
+            .toLowerCase(Locale.GERMAN)
+            .replace("ü", "u")
+            .replace("ö", "o")
+            .replace("ä", "a")
+            .replace("ß", "ss")
+            .replaceAll("[^\\p{L}\\p{N}]+", " ")
+            .trim();
+    }
+}
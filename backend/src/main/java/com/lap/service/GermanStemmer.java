@@ -0,0 +1,112 @@
+package com.lap.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Text analysis for item search: tokenizing plus the CISTEM stemmer for
+ * German (Weissweiler & Fraser, 2017), used case-insensitively.
+ */
+public final class GermanStemmer {
+
+    private GermanStemmer() {}
+
+    /**
+     * Split text into lower-case word tokens
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        for (String token : text
+            .toLowerCase(Locale.GERMAN)
+            .split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Tokenize and stem text
+     */
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String token : tokenize(text)) {
+            terms.add(stem(token));
+        }
+        return terms;
+    }
+
+    /**
+     * Stem a single lower-case token
+     */
+    public static String stem(String word) {
+        if (word == null || word.isEmpty()) {
+            return word;
+        }
+
+        String stem = word
+            .toLowerCase(Locale.GERMAN)
+            .replace("ü", "u")
+            .replace("ö", "o")
+            .replace("ä", "a")
+            .replace("ß", "ss");
+
+        // Strip the participle prefix "ge" from longer words
+        if (stem.length() >= 6 && stem.startsWith("ge")) {
+            stem = stem.substring(2);
+        }
+
+        // Protect character groups from being cut apart
+        stem = stem.replace("sch", "$").replace("ei", "%").replace("ie", "&");
+        stem = markDoubleLetters(stem);
+
+        while (stem.length() > 3) {
+            if (stem.length() > 5) {
+                if (stem.endsWith("em") || stem.endsWith("er")) {
+                    stem = stem.substring(0, stem.length() - 2);
+                    continue;
+                }
+                if (stem.endsWith("nd")) {
+                    stem = stem.substring(0, stem.length() - 2);
+                    continue;
+                }
+            }
+            char last = stem.charAt(stem.length() - 1);
+            if (last == 't' || last == 'e' || last == 's' || last == 'n') {
+                stem = stem.substring(0, stem.length() - 1);
+                continue;
+            }
+            break;
+        }
+
+        stem = unmarkDoubleLetters(stem);
+        return stem.replace("$", "sch").replace("%", "ei").replace("&", "ie");
+    }
+
+    private static String markDoubleLetters(String word) {
+        StringBuilder sb = new StringBuilder(word.length());
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (i > 0 && c == word.charAt(i - 1) && sb.charAt(sb.length() - 1) != '*') {
+                sb.append('*');
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String unmarkDoubleLetters(String word) {
+        StringBuilder sb = new StringBuilder(word.length());
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            sb.append(c == '*' && i > 0 ? sb.charAt(sb.length() - 1) : c);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,201 @@
+package com.lap.service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Uploads the images of one request concurrently, so an item with several
+ * photos waits for the slowest upload instead of the sum of all of them.
+ *
+ * The pool is bounded and shared by all requests; when its queue is full
+ * the request thread uploads itself, which throttles callers instead of
+ * rejecting them. Either all images of a call are stored or none: if one
+ * fails, the others are deleted again.
+ */
+@Service
+public class ImageUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        ImageUploadService.class
+    );
+
+    private static final int QUEUE_CAPACITY = 100;
+
+    private final FileStorageService fileStorageService;
+    private final ExecutorService executor;
+
+    private final AtomicLong uploadCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong totalMillis = new AtomicLong();
+    private final AtomicLong maxMillis = new AtomicLong();
+
+    public ImageUploadService(
+        FileStorageService fileStorageService,
+        @Value("${file.upload.parallelism:4}") int parallelism
+    ) {
+        this.fileStorageService = fileStorageService;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            parallelism,
+            parallelism,
+            60,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(QUEUE_CAPACITY),
+            runnable -> {
+                Thread thread = new Thread(
+                    runnable,
+                    "image-upload-" + threadNumber.incrementAndGet()
+                );
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    /**
+     * Upload all non-empty images under "<prefix><time>_<index>_<name>"
+     *
+     * @return the stored file names, in the order of the images
+     * @throws RuntimeException with the first failure, after the images
+     * that did upload were deleted again
+     */
+    public List<String> uploadAll(MultipartFile[] images, String prefix) {
+        long timestamp = System.currentTimeMillis();
+        List<String> fileNames = new ArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (MultipartFile image : images) {
+            if (image.isEmpty()) {
+                continue;
+            }
+            // The index keeps equally named photos from overwriting
+            // each other
+            String fileName =
+                prefix +
+                timestamp +
+                "_" +
+                fileNames.size() +
+                "_" +
+                image.getOriginalFilename();
+            fileNames.add(fileName);
+            futures.add(executor.submit(() -> upload(image, fileName)));
+        }
+
+        RuntimeException failure = null;
+        List<String> uploaded = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).get();
+                uploaded.add(fileNames.get(i));
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException cause
+                        ? cause
+                        : new RuntimeException(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (failure == null) {
+                    failure = new RuntimeException("Upload interrupted", e);
+                }
+            }
+        }
+
+        if (failure != null) {
+            rollback(uploaded);
+            throw failure;
+        }
+        return fileNames;
+    }
+
+    /**
+     * Upload counts and durations. Aggregates only: file names belong to
+     * other users.
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new HashMap<>();
+        long uploads = uploadCount.get();
+        statistics.put("uploadCount", uploads);
+        statistics.put("failureCount", failureCount.get());
+        statistics.put(
+            "averageMillis",
+            uploads > 0 ? totalMillis.get() / (double) uploads : 0.0
+        );
+        statistics.put("maxMillis", maxMillis.get());
+        return statistics;
+    }
+
+    /**
+     * Delete uploaded files again, e.g. when the item they belong to could
+     * not be saved. Failures are logged and never thrown.
+     */
+    public void rollback(List<String> fileNames) {
+        for (String fileName : fileNames) {
+            try {
+                fileStorageService.deleteFile(fileName);
+            } catch (Exception e) {
+                logger.warn(
+                    "Failed to roll back upload {}: {}",
+                    fileName,
+                    e.getMessage()
+                );
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void upload(MultipartFile image, String fileName) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            fileStorageService.uploadFile(image, fileName);
+            success = true;
+        } finally {
+            long millis = TimeUnit.NANOSECONDS.toMillis(
+                System.nanoTime() - start
+            );
+            record(fileName, image.getSize(), millis, success);
+        }
+    }
+
+    private void record(
+        String fileName,
+        long size,
+        long millis,
+        boolean success
+    ) {
+        logger.debug(
+            "Uploaded {} ({} bytes) in {} ms{}",
+            fileName,
+            size,
+            millis,
+            success ? "" : " - failed"
+        );
+        uploadCount.incrementAndGet();
+        totalMillis.addAndGet(millis);
+        maxMillis.accumulateAndGet(millis, Math::max);
+        if (!success) {
+            failureCount.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.lap.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Fixed-width derivatives of uploaded images, encoded as progressive JPEG
+ * and stored next to the original as "<name>_w<width>.jpg". List views
+ * request "/api/files/download/<name>?w=480" and get the smallest variant
+ * at least that wide instead of the full upload.
+ *
+ * Images are never scaled up: a variant wider than the original holds the
+ * original size, so every configured width exists for every image.
+ */
+@Service
+public class ImageVariantService {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        ImageVariantService.class
+    );
+
+    // How long a missing variant is remembered. Short, since the lookup
+    // may have failed transiently or run before the upload stored it.
+    private static final Duration MISSING_VARIANT_TTL =
+        Duration.ofSeconds(30);
+
+    private final List<Integer> widths;
+    private final float quality;
+    // Variants known to be stored
+    private final Cache<String, Boolean> storedVariants = Caffeine.newBuilder()
+        .maximumSize(10000)
+        .build();
+    // Variants recently found missing; images uploaded before variants
+    // existed have none
+    private final Cache<String, Boolean> missingVariants = Caffeine.newBuilder()
+        .maximumSize(10000)
+        .expireAfterWrite(MISSING_VARIANT_TTL)
+        .build();
+
+    public ImageVariantService(
+        @Value(
+            "${file.image-variants.widths:160,480,1080}"
+        ) List<Integer> widths,
+        @Value("${file.image-variants.quality:0.8}") float quality
+    ) {
+        this.widths = widths.stream().sorted().distinct().toList();
+        this.quality = quality;
+    }
+
+    public static String variantName(String fileName, int width) {
+        return fileName + "_w" + width + ".jpg";
+    }
+
+    /**
+     * Names of all variants an image may have; empty for other files
+     */
+    public List<String> variantNames(String fileName) {
+        if (!isImage(fileName)) {
+            return List.of();
+        }
+        return widths
+            .stream()
+            .map(width -> variantName(fileName, width))
+            .toList();
+    }
+
+    /**
+     * Encode all variants of an uploaded image, keyed by variant name.
+     * Empty if the file is not an image ImageIO can read.
+     */
+    public Map<String, byte[]> createVariants(
+        MultipartFile file,
+        String fileName
+    ) {
+        Map<String, byte[]> variants = new LinkedHashMap<>();
+        String contentType = file.getContentType();
+        if (
+            widths.isEmpty() ||
+            contentType == null ||
+            !contentType.startsWith("image/")
+        ) {
+            return variants;
+        }
+
+        try {
+            BufferedImage original;
+            try (
+                InputStream inputStream = file.getInputStream();
+                ImageInputStream imageInputStream =
+                    ImageIO.createImageInputStream(inputStream)
+            ) {
+                original = decode(imageInputStream);
+            }
+            if (original == null) {
+                logger.warn("No image reader for {}", fileName);
+                return variants;
+            }
+
+            for (int width : widths) {
+                BufferedImage resized = resize(
+                    original,
+                    Math.min(width, original.getWidth())
+                );
+                variants.put(variantName(fileName, width), encode(resized));
+            }
+        } catch (IOException e) {
+            logger.warn(
+                "Failed to create variants of {}: {}",
+                fileName,
+                e.getMessage()
+            );
+            return new LinkedHashMap<>();
+        }
+        return variants;
+    }
+
+    /**
+     * Name to serve for ?w=: the smallest variant at least that wide, or
+     * the original if it is wider than all variants, not an image, or has
+     * no stored variants
+     */
+    public String resolve(
+        String fileName,
+        Integer width,
+        Predicate<String> exists
+    ) {
+        if (width == null || width <= 0 || !isImage(fileName)) {
+            return fileName;
+        }
+
+        for (int variantWidth : widths) {
+            if (variantWidth >= width) {
+                String variant = variantName(fileName, variantWidth);
+                return isStored(variant, exists) ? variant : fileName;
+            }
+        }
+        return fileName;
+    }
+
+    /**
+     * Record that the variants of an image were stored
+     */
+    public void stored(Iterable<String> variantNames) {
+        for (String variant : variantNames) {
+            storedVariants.put(variant, true);
+            missingVariants.invalidate(variant);
+        }
+    }
+
+    /**
+     * Forget the variants of a deleted image
+     */
+    public void forget(String fileName) {
+        storedVariants.invalidateAll(variantNames(fileName));
+        missingVariants.invalidateAll(variantNames(fileName));
+    }
+
+    private boolean isStored(String variant, Predicate<String> exists) {
+        if (storedVariants.getIfPresent(variant) != null) {
+            return true;
+        }
+        if (missingVariants.getIfPresent(variant) != null) {
+            return false;
+        }
+        if (exists.test(variant)) {
+            storedVariants.put(variant, true);
+            return true;
+        }
+        missingVariants.put(variant, true);
+        return false;
+    }
+
+    /**
+     * Decode an upload, skipping source pixels so the result is still at
+     * least twice as wide as the largest variant. A full-resolution decode
+     * of a large photo takes 100 MB and more of heap, per upload thread.
+     */
+    private BufferedImage decode(ImageInputStream input) throws IOException {
+        if (input == null) {
+            return null;
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            return null;
+        }
+
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(input, true, true);
+            int largestWidth = widths.get(widths.size() - 1);
+            int subsampling = Math.max(
+                1,
+                reader.getWidth(0) / (2 * largestWidth)
+            );
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+            return reader.read(0, param);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    private static boolean isImage(String fileName) {
+        return MediaTypeFactory.getMediaType(fileName)
+            .map(type -> "image".equals(type.getType()))
+            .orElse(false);
+    }
+
+    /**
+     * Scale down in steps of at most one half, which keeps bilinear
+     * filtering sharp, onto an opaque RGB image as JPEG has no alpha
+     */
+    private static BufferedImage resize(BufferedImage image, int width) {
+        int height = Math.max(
+            1,
+            Math.round((float) image.getHeight() * width / image.getWidth())
+        );
+        BufferedImage current = image;
+        int currentWidth = image.getWidth();
+        int currentHeight = image.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            current = draw(current, currentWidth, currentHeight);
+        } while (currentWidth != width || currentHeight != height);
+        return current;
+    }
+
+    private static BufferedImage draw(
+        BufferedImage image,
+        int width,
+        int height
+    ) {
+        BufferedImage target = new BufferedImage(
+            width,
+            height,
+            BufferedImage.TYPE_INT_RGB
+        );
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(
+                RenderingHints.KEY_INTERPOLATION,
+                RenderingHints.VALUE_INTERPOLATION_BILINEAR
+            );
+            graphics.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(
+            "jpeg"
+        ).next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (
+            ImageOutputStream imageOutputStream =
+                ImageIO.createImageOutputStream(outputStream)
+        ) {
+            writer.setOutput(imageOutputStream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,414 @@
+package com.lap.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lap.entity.Item;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes item changes to Server-Sent Events subscribers.
+ *
+ * Subscriptions are async requests, so an idle subscriber holds a
+ * connection but no servlet thread. Publishing only queues the event; a
+ * single dispatcher thread serializes it once and appends it to the queue
+ * of each subscriber of the item, of its category and of all items.
+ *
+ * Every subscriber's queue is drained on its own by a small sender pool,
+ * so a client that reads slowly only delays itself. A subscriber whose
+ * queue overflows is disconnected; EventSource reconnects on its own.
+ */
+@Service
+public class ItemEventService {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        ItemEventService.class
+    );
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String RESERVED = "reserved";
+    public static final String DELETED = "deleted";
+    public static final String COMMENTED = "commented";
+
+    public static final int MAX_SUBSCRIBERS = 10000;
+    // Clients (EventSource) reconnect on their own after a timeout
+    private static final long SUBSCRIPTION_TIMEOUT_MS = 30 * 60 * 1000L;
+    // Keeps proxies from closing idle connections and detects dead clients
+    private static final long HEARTBEAT_INTERVAL_SECONDS = 25;
+    // Events waiting for one subscriber before it counts as stalled
+    private static final int QUEUE_CAPACITY = 32;
+    // A write to a stalled client blocks its sender until the connector's
+    // write timeout, so a few threads keep the others flowing meanwhile
+    private static final int SENDER_THREADS = 8;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Set<Subscriber> allItems = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscriber>> byItem =
+        new ConcurrentHashMap<>();
+    private final Map<String, Set<Subscriber>> byCategory =
+        new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong eventId = new AtomicLong();
+    private final ScheduledExecutorService dispatcher =
+        Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "item-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+    private final AtomicInteger senderNumber = new AtomicInteger();
+    private final ExecutorService senders = Executors.newFixedThreadPool(
+        SENDER_THREADS,
+        runnable -> {
+            Thread thread = new Thread(
+                runnable,
+                "item-events-send-" + senderNumber.incrementAndGet()
+            );
+            thread.setDaemon(true);
+            return thread;
+        }
+    );
+
+    /**
+     * An event rendered once and shared by all subscribers it goes to
+     */
+    private record Message(List<ResponseBodyEmitter.DataWithMediaType> parts) {
+        static Message of(SseEmitter.SseEventBuilder event) {
+            return new Message(List.copyOf(event.build()));
+        }
+    }
+
+    private record Subscriber(
+        SseEmitter emitter,
+        Long itemId,
+        String category,
+        AtomicBoolean active,
+        Queue<Message> queue,
+        // Set while a sender owns this subscriber's queue
+        AtomicBoolean draining
+    ) {}
+
+    public ItemEventService() {
+        dispatcher.scheduleAtFixedRate(
+            this::sendHeartbeat,
+            HEARTBEAT_INTERVAL_SECONDS,
+            HEARTBEAT_INTERVAL_SECONDS,
+            TimeUnit.SECONDS
+        );
+    }
+
+    /**
+     * Open a subscription for one item, one category or (both null) all
+     * items
+     *
+     * @throws IllegalStateException if the subscriber limit is reached
+     */
+    public SseEmitter subscribe(Long itemId, String category) {
+        if (subscriberCount.incrementAndGet() > MAX_SUBSCRIBERS) {
+            subscriberCount.decrementAndGet();
+            throw new IllegalStateException("Too many event subscribers");
+        }
+
+        SseEmitter emitter = new SseEmitter(SUBSCRIPTION_TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(
+            emitter,
+            itemId,
+            category != null && !category.isBlank()
+                ? normalizeCategory(category)
+                : null,
+            new AtomicBoolean(true),
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            new AtomicBoolean(false)
+        );
+        if (subscriber.itemId() != null) {
+            byItem.compute(subscriber.itemId(), (key, set) ->
+                addTo(set, subscriber)
+            );
+        } else if (subscriber.category() != null) {
+            byCategory.compute(subscriber.category(), (key, set) ->
+                addTo(set, subscriber)
+            );
+        } else {
+            allItems.add(subscriber);
+        }
+
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+        return emitter;
+    }
+
+    public void itemCreated(Item item) {
+        publish(CREATED, item.getId(), item.getCategory(), item, null);
+    }
+
+    public void itemUpdated(Item item) {
+        publish(UPDATED, item.getId(), item.getCategory(), item, null);
+    }
+
+    public void itemReserved(Item item) {
+        publish(RESERVED, item.getId(), item.getCategory(), item, null);
+    }
+
+    public void itemDeleted(Long itemId, String category) {
+        publish(DELETED, itemId, category, null, null);
+    }
+
+    public void itemCommented(Item item, Long commentId) {
+        publish(COMMENTED, item.getId(), item.getCategory(), null, commentId);
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers(null, null)) {
+            subscriber.emitter().complete();
+        }
+    }
+
+    /**
+     * Build the event on the caller's thread (the item is still attached
+     * there) and hand it to the dispatcher. Never blocks and never throws.
+     */
+    private void publish(
+        String type,
+        Long itemId,
+        String category,
+        Item item,
+        Long commentId
+    ) {
+        if (subscriberCount.get() == 0 || itemId == null) {
+            return;
+        }
+
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("type", type);
+        event.put("itemId", itemId);
+        event.put("category", category);
+        if (item != null) {
+            event.put("title", item.getTitle());
+            event.put("isReserved", item.getIsReserved());
+        }
+        if (commentId != null) {
+            event.put("commentId", commentId);
+        }
+        event.put("timestamp", LocalDateTime.now().toString());
+
+        try {
+            dispatcher.execute(() -> dispatch(type, itemId, category, event));
+        } catch (RejectedExecutionException e) {
+            logger.debug("Item event {} dropped during shutdown", type);
+        }
+    }
+
+    private void dispatch(
+        String type,
+        Long itemId,
+        String category,
+        Map<String, Object> event
+    ) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            logger.warn("Failed to serialize item event: {}", e.getMessage());
+            return;
+        }
+
+        Message message = Message.of(
+            SseEmitter.event()
+                .id(Long.toString(eventId.incrementAndGet()))
+                .name(type)
+                .data(data)
+        );
+        for (Subscriber subscriber : subscribers(itemId, category)) {
+            enqueue(subscriber, message);
+        }
+    }
+
+    private void sendHeartbeat() {
+        if (subscriberCount.get() == 0) {
+            return;
+        }
+
+        Message heartbeat = Message.of(SseEmitter.event().comment(""));
+        for (Subscriber subscriber : subscribers(null, null)) {
+            enqueue(subscriber, heartbeat);
+        }
+    }
+
+    /**
+     * Runs on the dispatcher and never blocks: the event is queued and a
+     * sender is started unless one is already draining this subscriber
+     */
+    private void enqueue(Subscriber subscriber, Message message) {
+        if (!subscriber.active().get()) {
+            return;
+        }
+        if (!subscriber.queue().offer(message)) {
+            logger.debug("Disconnecting item event subscriber that stalled");
+            unsubscribe(subscriber);
+            subscriber.queue().clear();
+        }
+        startDraining(subscriber);
+    }
+
+    private void startDraining(Subscriber subscriber) {
+        if (!subscriber.draining().compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            senders.execute(() -> drain(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.draining().set(false);
+        }
+    }
+
+    /**
+     * Write the queued events of one subscriber. Completing the emitter
+     * also happens here, as the emitter is locked while a write blocks.
+     */
+    private void drain(Subscriber subscriber) {
+        Message message;
+        while (
+            subscriber.active().get() &&
+            (message = subscriber.queue().poll()) != null
+        ) {
+            try {
+                for (
+                    ResponseBodyEmitter.DataWithMediaType part : message.parts()
+                ) {
+                    subscriber
+                        .emitter()
+                        .send(part.getData(), part.getMediaType());
+                }
+            } catch (Exception e) {
+                // Client went away; the container may not notice until we
+                // write
+                unsubscribe(subscriber);
+                completeQuietly(subscriber, e);
+                return;
+            }
+        }
+
+        if (!subscriber.active().get()) {
+            completeQuietly(subscriber, null);
+            return;
+        }
+        subscriber.draining().set(false);
+        // An event queued between the last poll and clearing the flag
+        // found the flag still set and did not start a sender
+        if (!subscriber.queue().isEmpty()) {
+            startDraining(subscriber);
+        }
+    }
+
+    private static void completeQuietly(Subscriber subscriber, Exception e) {
+        try {
+            if (e != null) {
+                subscriber.emitter().completeWithError(e);
+            } else {
+                subscriber.emitter().complete();
+            }
+        } catch (Exception alreadyCompleted) {
+            // Timed out or closed by the container in the meantime
+        }
+    }
+
+    /**
+     * Subscribers interested in an item, or all subscribers when both
+     * arguments are null
+     */
+    private List<Subscriber> subscribers(Long itemId, String category) {
+        List<Subscriber> result = new ArrayList<>(allItems);
+        if (itemId == null && category == null) {
+            byItem.values().forEach(result::addAll);
+            byCategory.values().forEach(result::addAll);
+            return result;
+        }
+
+        if (itemId != null) {
+            result.addAll(byItem.getOrDefault(itemId, Set.of()));
+        }
+        if (category != null) {
+            result.addAll(
+                byCategory.getOrDefault(normalizeCategory(category), Set.of())
+            );
+        }
+        return result;
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscriber.active().compareAndSet(true, false)) {
+            return;
+        }
+
+        if (subscriber.itemId() != null) {
+            byItem.computeIfPresent(subscriber.itemId(), (key, set) ->
+                removeFrom(set, subscriber)
+            );
+        } else if (subscriber.category() != null) {
+            byCategory.computeIfPresent(subscriber.category(), (key, set) ->
+                removeFrom(set, subscriber)
+            );
+        } else {
+            allItems.remove(subscriber);
+        }
+        subscriberCount.decrementAndGet();
+    }
+
+    // Sets are added to and emptied inside compute(), so a subscriber is
+    // never added to a set that was just dropped from the map
+    private static Set<Subscriber> addTo(
+        Set<Subscriber> set,
+        Subscriber subscriber
+    ) {
+        Set<Subscriber> result = set != null
+            ? set
+            : ConcurrentHashMap.newKeySet();
+        result.add(subscriber);
+        return result;
+    }
+
+    private static Set<Subscriber> removeFrom(
+        Set<Subscriber> set,
+        Subscriber subscriber
+    ) {
+        set.remove(subscriber);
+        return set.isEmpty() ? null : set;
+    }
+
+    private static String normalizeCategory(String category) {
+        return category.trim().toLowerCase(Locale.GERMAN);
+    }
+}
@@ -0,0 +1,283 @@
+package com.lap.service;
+
+import com.lap.dto.ItemFacetValues;
+import com.lap.entity.Item;
+import com.lap.repository.ItemRepository;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Facet counts for category, location, condition and isReserved.
+ *
+ * Items are grouped by their combination of facet values. The groups are
+ * loaded once at startup and kept current by ItemController, so counting
+ * costs the number of distinct combinations, not the number of items.
+ * Each facet is counted under all filters except its own, so the
+ * alternatives to a selected value stay visible.
+ */
+@Service
+public class ItemFacetService {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        ItemFacetService.class
+    );
+
+    private static final String CATEGORY = "category";
+    private static final String LOCATION = "location";
+    private static final String CONDITION = "condition";
+    private static final String IS_RESERVED = "isReserved";
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, FacetValues> valuesByItem = new HashMap<>();
+    private final Map<FacetValues, Long> combinationCounts = new HashMap<>();
+    private volatile boolean ready = false;
+
+    private record FacetValues(
+        String category,
+        String location,
+        String condition,
+        boolean isReserved
+    ) {}
+
+    /**
+     * Load the facet values of all items
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<ItemFacetValues> rows;
+
+        // Loaded under the write lock, so writes made during startup wait
+        // and apply on top of the snapshot instead of being lost
+        lock.writeLock().lock();
+        try {
+            rows = itemRepository.findAllFacetValues();
+            valuesByItem.clear();
+            combinationCounts.clear();
+            for (ItemFacetValues row : rows) {
+                addValues(
+                    row.itemId(),
+                    new FacetValues(
+                        row.category(),
+                        row.location(),
+                        row.condition(),
+                        Boolean.TRUE.equals(row.isReserved())
+                    )
+                );
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info(
+            "Item facets built: {} items, {} combinations in {} ms",
+            rows.size(),
+            combinationCounts.size(),
+            System.currentTimeMillis() - start
+        );
+    }
+
+    /**
+     * Whether facet counts are available
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Add or replace an item
+     */
+    public void index(Item item) {
+        if (item.getId() == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeValues(item.getId(), valuesByItem.get(item.getId()));
+            addValues(
+                item.getId(),
+                new FacetValues(
+                    item.getCategory(),
+                    item.getLocation(),
+                    item.getCondition(),
+                    Boolean.TRUE.equals(item.getIsReserved())
+                )
+            );
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an item
+     */
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeValues(itemId, valuesByItem.get(itemId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Facet counts over all items under the given filters (null = any)
+     */
+    public Map<String, Map<String, Long>> count(
+        String category,
+        String location,
+        String condition,
+        Boolean isReserved
+    ) {
+        lock.readLock().lock();
+        try {
+            return aggregate(
+                combinationCounts,
+                category,
+                location,
+                condition,
+                isReserved
+            );
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Facet counts over the given items (e.g. the matches of a search)
+     * under the given filters (null = any)
+     */
+    public Map<String, Map<String, Long>> count(
+        Collection<Long> itemIds,
+        String category,
+        String location,
+        String condition,
+        Boolean isReserved
+    ) {
+        Map<FacetValues, Long> counts = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            for (Long itemId : itemIds) {
+                FacetValues values = valuesByItem.get(itemId);
+                if (values != null) {
+                    counts.merge(values, 1L, Long::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return aggregate(counts, category, location, condition, isReserved);
+    }
+
+    private Map<String, Map<String, Long>> aggregate(
+        Map<FacetValues, Long> counts,
+        String category,
+        String location,
+        String condition,
+        Boolean isReserved
+    ) {
+        Map<String, Long> categories = new HashMap<>();
+        Map<String, Long> locations = new HashMap<>();
+        Map<String, Long> conditions = new HashMap<>();
+        Map<String, Long> reserved = new HashMap<>();
+
+        for (Map.Entry<FacetValues, Long> entry : counts.entrySet()) {
+            FacetValues values = entry.getKey();
+            boolean categoryMatches = matches(category, values.category());
+            boolean locationMatches = matches(location, values.location());
+            boolean conditionMatches = matches(condition, values.condition());
+            boolean reservedMatches =
+                isReserved == null || isReserved == values.isReserved();
+            long count = entry.getValue();
+
+            if (locationMatches && conditionMatches && reservedMatches) {
+                increment(categories, values.category(), count);
+            }
+            if (categoryMatches && conditionMatches && reservedMatches) {
+                increment(locations, values.location(), count);
+            }
+            if (categoryMatches && locationMatches && reservedMatches) {
+                increment(conditions, values.condition(), count);
+            }
+            if (categoryMatches && locationMatches && conditionMatches) {
+                increment(
+                    reserved,
+                    String.valueOf(values.isReserved()),
+                    count
+                );
+            }
+        }
+
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        facets.put(CATEGORY, sortByCount(categories));
+        facets.put(LOCATION, sortByCount(locations));
+        facets.put(CONDITION, sortByCount(conditions));
+        facets.put(IS_RESERVED, sortByCount(reserved));
+        return facets;
+    }
+
+    private void addValues(Long itemId, FacetValues values) {
+        valuesByItem.put(itemId, values);
+        combinationCounts.merge(values, 1L, Long::sum);
+    }
+
+    private void removeValues(Long itemId, FacetValues values) {
+        if (values == null) {
+            return;
+        }
+
+        valuesByItem.remove(itemId);
+        combinationCounts.computeIfPresent(values, (key, count) ->
+            count > 1 ? count - 1 : null
+        );
+    }
+
+    private static boolean matches(String filter, String value) {
+        return filter == null || filter.isEmpty() || filter.equals(value);
+    }
+
+    private static void increment(
+        Map<String, Long> counts,
+        String value,
+        long count
+    ) {
+        if (value != null && !value.isEmpty()) {
+            counts.merge(value, count, Long::sum);
+        }
+    }
+
+    /**
+     * Most frequent value first, ties in alphabetical order
+     */
+    private static Map<String, Long> sortByCount(Map<String, Long> counts) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts
+            .entrySet()
+            .stream()
+            .sorted(
+                Map.Entry.<String, Long>comparingByValue()
+                    .reversed()
+                    .thenComparing(Map.Entry.comparingByKey())
+            )
+            .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+}
@@ -0,0 +1,113 @@
+package com.lap.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Rendered JSON of anonymous item list responses, bounded by the total
+ * size of the cached bodies. ItemController invalidates it on every item
+ * write, so entries never expire on their own.
+ */
+@Service
+public class ItemListCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        ItemListCache.class
+    );
+
+    private final Cache<String, Entry> cache;
+    private final boolean enabled;
+    // Bumped on every invalidation, so a response rendered from data that
+    // changed in the meantime is not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Response body plus its ETag
+     */
+    public record Entry(byte[] body, String eTag) {}
+
+    public ItemListCache(
+        @Value("${cache.item-lists.enabled:true}") boolean enabled,
+        @Value("${cache.item-lists.max-bytes:33554432}") long maxBytes
+    ) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((String key, Entry entry) ->
+                key.length() + entry.body().length
+            )
+            .recordStats()
+            .build();
+        logger.info(
+            "Item list cache {} ({} bytes)",
+            enabled ? "enabled" : "disabled",
+            maxBytes
+        );
+    }
+
+    /**
+     * Current generation, to be passed to put() once the response is rendered
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public Entry get(String key) {
+        return enabled ? cache.getIfPresent(key) : null;
+    }
+
+    /**
+     * Store a rendered response unless the cache was invalidated since
+     * generation() was read
+     */
+    public void put(String key, long generation, Entry entry) {
+        if (enabled && generation == this.generation.get()) {
+            cache.put(key, entry);
+            // An invalidation may have slipped in between the check and put
+            if (generation != this.generation.get()) {
+                cache.invalidate(key);
+            }
+        }
+    }
+
+    /**
+     * Drop all entries; called whenever an item is created, updated,
+     * reserved or deleted
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Hit/miss/eviction counters and current size
+     */
+    public Map<String, Object> getStatistics() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> statistics = new HashMap<>();
+        statistics.put("enabled", enabled);
+        statistics.put("hitCount", stats.hitCount());
+        statistics.put("missCount", stats.missCount());
+        statistics.put("hitRate", stats.hitRate());
+        statistics.put("evictionCount", stats.evictionCount());
+        statistics.put("evictedBytes", stats.evictionWeight());
+        statistics.put("entries", cache.estimatedSize());
+        statistics.put(
+            "cachedBytes",
+            cache
+                .policy()
+                .eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0))
+                .orElse(0L)
+        );
+        return statistics;
+    }
+}
@@ -0,0 +1,368 @@
+package com.lap.service;
+
+import com.lap.entity.Item;
+import com.lap.repository.ItemRepository;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-memory inverted index over item title, description, category and
+ * location. Built once at startup and kept current by ItemController, so
+ * searches only go to the database to load the items of the result page.
+ *
+ * Scoring is BM25 multiplied by a recency boost that halves every
+ * {@code search.index.recency-half-life-days}. Query terms ending in '*'
+ * are prefix queries, and so is the last term, so "Fahr" still finds
+ * "Fahrrad" as the LIKE search did.
+ *
+ * A word fragment does not always stem like the word it starts: CISTEM
+ * strips "ge" only from words of six letters or more, so "geschi" stays
+ * as it is while "Geschirr" becomes "schirr". Prefixes are therefore also
+ * matched against the unstemmed words of all items and mapped to their
+ * stems.
+ */
+@Service
+public class ItemSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        ItemSearchIndex.class
+    );
+
+    // BM25 parameters
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Title terms count as if they appeared this many times
+    private static final int TITLE_BOOST = 2;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Value("${search.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.index.recency-weight:0.5}")
+    private double recencyWeight;
+
+    @Value("${search.index.recency-half-life-days:30}")
+    private double recencyHalfLifeDays;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // term -> (item id -> term frequency), sorted for prefix lookups
+    private final NavigableMap<String, Map<Long, Integer>> postings =
+        new TreeMap<>();
+    // Unstemmed lower-case word -> number of items containing it
+    private final NavigableMap<String, Integer> words = new TreeMap<>();
+    private final Map<Long, IndexedItem> documents = new HashMap<>();
+    private long totalLength = 0;
+    private volatile boolean ready = false;
+
+    private record IndexedItem(
+        Map<String, Integer> termFrequencies,
+        Set<String> words,
+        int length,
+        String category,
+        long createdAtMillis
+    ) {}
+
+    /**
+     * Ids of one page of matching items, best match first, plus the total
+     * number of matches
+     */
+    public record SearchResult(List<Long> ids, long total) {}
+
+    /**
+     * Load all items into the index
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            logger.info("Item search index disabled");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        int itemCount;
+
+        // Requests are already served at this point. Loading under the
+        // write lock makes writes that race with the load wait and apply
+        // on top of it instead of being overwritten.
+        lock.writeLock().lock();
+        try {
+            List<Item> items = itemRepository.findAll();
+            postings.clear();
+            words.clear();
+            documents.clear();
+            totalLength = 0;
+            for (Item item : items) {
+                addDocument(item);
+            }
+            itemCount = items.size();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info(
+            "Item search index built: {} items, {} terms in {} ms",
+            itemCount,
+            postings.size(),
+            System.currentTimeMillis() - start
+        );
+    }
+
+    /**
+     * Whether searches can be answered from the index
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Add or replace an item
+     */
+    public void index(Item item) {
+        if (!enabled || item.getId() == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(item.getId());
+            addDocument(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an item
+     */
+    public void remove(Long itemId) {
+        if (!enabled) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Search items, optionally restricted to a category
+     */
+    public SearchResult search(
+        String query,
+        String category,
+        int offset,
+        int limit
+    ) {
+        Map<Long, Double> scores = score(query, category);
+
+        List<Long> ids = scores
+            .entrySet()
+            .stream()
+            .sorted(
+                Map.Entry.<Long, Double>comparingByValue(
+                    Comparator.reverseOrder()
+                ).thenComparing(
+                    Map.Entry.<Long, Double>comparingByKey(
+                        Comparator.reverseOrder()
+                    )
+                )
+            )
+            .skip(offset)
+            .limit(limit)
+            .map(Map.Entry::getKey)
+            .toList();
+
+        return new SearchResult(ids, scores.size());
+    }
+
+    /**
+     * Ids of all items matching the query, in no particular order
+     */
+    public Set<Long> matchingIds(String query) {
+        return score(query, null).keySet();
+    }
+
+    private Map<Long, Double> score(String query, String category) {
+        List<String> tokens = new ArrayList<>();
+        List<Boolean> prefixes = new ArrayList<>();
+        for (String raw : query.trim().split("\\s+")) {
+            boolean prefix = raw.endsWith("*");
+            for (String token : GermanStemmer.tokenize(raw)) {
+                tokens.add(token);
+                prefixes.add(prefix);
+            }
+        }
+        if (!prefixes.isEmpty()) {
+            // The last word may be incomplete
+            prefixes.set(prefixes.size() - 1, true);
+        }
+
+        boolean hasCategory = category != null && !category.isEmpty();
+        Map<Long, Double> scores = new HashMap<>();
+        long now = System.currentTimeMillis();
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (documentCount == 0 || tokens.isEmpty()) {
+                return scores;
+            }
+            double averageLength = (double) totalLength / documentCount;
+
+            for (int i = 0; i < tokens.size(); i++) {
+                String token = tokens.get(i);
+                String term = GermanStemmer.stem(token);
+                Set<String> matching = new HashSet<>();
+                matching.add(term);
+                if (prefixes.get(i) && token.length() >= MIN_PREFIX_LENGTH) {
+                    matching.addAll(startingWith(postings, term).keySet());
+                    for (String word : startingWith(words, token).keySet()) {
+                        matching.add(GermanStemmer.stem(word));
+                    }
+                }
+
+                for (String matchingTerm : matching) {
+                    Map<Long, Integer> postingList = postings.get(matchingTerm);
+                    if (postingList == null) {
+                        continue;
+                    }
+                    double idf = Math.log(
+                        1 +
+                        (documentCount - postingList.size() + 0.5) /
+                        (postingList.size() + 0.5)
+                    );
+                    for (Map.Entry<Long, Integer> posting : postingList.entrySet()) {
+                        IndexedItem document = documents.get(posting.getKey());
+                        if (
+                            hasCategory &&
+                            !category.equals(document.category())
+                        ) {
+                            continue;
+                        }
+                        int tf = posting.getValue();
+                        double norm =
+                            K1 *
+                            (1 - B + B * document.length() / averageLength);
+                        double score = idf * (tf * (K1 + 1)) / (tf + norm);
+                        scores.merge(posting.getKey(), score, Double::sum);
+                    }
+                }
+            }
+
+            // Blend in recency: newer items get up to (1 + recencyWeight)x
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                IndexedItem document = documents.get(entry.getKey());
+                double ageDays =
+                    Math.max(0, now - document.createdAtMillis()) / 86_400_000.0;
+                double recency = Math.pow(0.5, ageDays / recencyHalfLifeDays);
+                entry.setValue(entry.getValue() * (1 + recencyWeight * recency));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return scores;
+    }
+
+    private static <V> NavigableMap<String, V> startingWith(
+        NavigableMap<String, V> map,
+        String prefix
+    ) {
+        return map.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private void addDocument(Item item) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        for (String term : GermanStemmer.analyze(item.getTitle())) {
+            termFrequencies.merge(term, TITLE_BOOST, Integer::sum);
+        }
+        for (String term : GermanStemmer.analyze(item.getDescription())) {
+            termFrequencies.merge(term, 1, Integer::sum);
+        }
+        for (String term : GermanStemmer.analyze(item.getCategory())) {
+            termFrequencies.merge(term, 1, Integer::sum);
+        }
+        for (String term : GermanStemmer.analyze(item.getLocation())) {
+            termFrequencies.merge(term, 1, Integer::sum);
+        }
+
+        Set<String> itemWords = new HashSet<>();
+        itemWords.addAll(GermanStemmer.tokenize(item.getTitle()));
+        itemWords.addAll(GermanStemmer.tokenize(item.getDescription()));
+        itemWords.addAll(GermanStemmer.tokenize(item.getCategory()));
+        itemWords.addAll(GermanStemmer.tokenize(item.getLocation()));
+        for (String word : itemWords) {
+            words.merge(word, 1, Integer::sum);
+        }
+
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+            postings
+                .computeIfAbsent(entry.getKey(), key -> new HashMap<>())
+                .put(item.getId(), entry.getValue());
+            length += entry.getValue();
+        }
+
+        LocalDateTime createdAt = item.getCreatedAt() != null
+            ? item.getCreatedAt()
+            : LocalDateTime.now();
+        documents.put(
+            item.getId(),
+            new IndexedItem(
+                termFrequencies,
+                itemWords,
+                length,
+                item.getCategory(),
+                createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+            )
+        );
+        totalLength += length;
+    }
+
+    private void removeDocument(Long itemId) {
+        IndexedItem document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+
+        for (String term : document.termFrequencies().keySet()) {
+            Map<Long, Integer> postingList = postings.get(term);
+            if (postingList != null) {
+                postingList.remove(itemId);
+                if (postingList.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        for (String word : document.words()) {
+            words.computeIfPresent(word, (key, count) ->
+                count > 1 ? count - 1 : null
+            );
+        }
+        totalLength -= document.length();
+    }
+}
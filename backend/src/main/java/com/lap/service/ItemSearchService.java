@@ -0,0 +1,49 @@
+package com.lap.service;
+
+import com.lap.entity.Item;
+import com.lap.repository.ItemRepository;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class ItemSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        ItemSearchService.class
+    );
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Value("${search.fuzzy.threshold:0.4}")
+    private double fuzzyThreshold;
+
+    /**
+     * Typo-tolerant search ordered by trigram word similarity.
+     * Runs in one transaction so the threshold set via set_config applies
+     * to the search query on the same connection.
+     */
+    @Transactional(readOnly = true)
+    public List<Item> fuzzySearch(String keyword, String category) {
+        itemRepository.setWordSimilarityThreshold(
+            String.valueOf(fuzzyThreshold)
+        );
+
+        List<Item> items = category != null && !category.isEmpty()
+            ? itemRepository.searchFuzzyByCategory(category, keyword)
+            : itemRepository.searchFuzzy(keyword);
+
+        logger.debug(
+            "Fuzzy search for '{}' (threshold {}) found {} items",
+            keyword,
+            fuzzyThreshold,
+            items.size()
+        );
+        return items;
+    }
+}
@@ -0,0 +1,287 @@
+package com.lap.service;
+
+import com.lap.dto.ItemSummary;
+import com.lap.entity.Item;
+import com.lap.repository.ItemRepository;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Typeahead suggestions from prefix tries over the words of item titles
+ * and over categories, ranked by the number of items they occur in.
+ *
+ * Every trie node caches the best MAX_SUGGESTIONS entries below it. A write
+ * only clears the caches on the path of the changed terms, so a lookup is a
+ * walk down the prefix plus, at worst, a merge along that path.
+ */
+@Service
+public class ItemSuggestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        ItemSuggestService.class
+    );
+
+    public static final int MAX_SUGGESTIONS = 10;
+    private static final int MIN_TERM_LENGTH = 2;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Trie titleTerms = new Trie();
+    private final Trie categories = new Trie();
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+
+    /**
+     * A suggested term and the number of items containing it
+     */
+    public record Suggestion(String text, int count) {}
+
+    private record IndexedItem(Set<String> terms, String category) {}
+
+    /**
+     * Load the titles and categories of all items
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        List<ItemSummary> summaries;
+
+        // Loaded under the write lock, so writes made during startup wait
+        // and apply on top of the snapshot instead of being lost
+        lock.writeLock().lock();
+        try {
+            summaries = itemRepository.findAllSummaries(false);
+            titleTerms.clear();
+            categories.clear();
+            items.clear();
+            for (ItemSummary summary : summaries) {
+                add(summary.id(), summary.title(), summary.category());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info(
+            "Suggestion tries built: {} items in {} ms",
+            summaries.size(),
+            System.currentTimeMillis() - start
+        );
+    }
+
+    /**
+     * Add or replace an item
+     */
+    public void index(Item item) {
+        if (item.getId() == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeItem(item.getId());
+            add(item.getId(), item.getTitle(), item.getCategory());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an item
+     */
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeItem(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Completions of the last word of the query. Earlier words are kept,
+     * so "rotes fahr" suggests "rotes fahrrad".
+     */
+    public List<Suggestion> suggestTerms(String query, int limit) {
+        String normalized = normalize(query);
+        int lastSpace = normalized.lastIndexOf(' ');
+        String head = normalized.substring(0, lastSpace + 1);
+        String prefix = normalized.substring(lastSpace + 1);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (Suggestion suggestion : lookup(titleTerms, prefix, limit)) {
+            suggestions.add(
+                new Suggestion(head + suggestion.text(), suggestion.count())
+            );
+        }
+        return suggestions;
+    }
+
+    /**
+     * Categories starting with the query
+     */
+    public List<Suggestion> suggestCategories(String query, int limit) {
+        String prefix = normalize(query);
+        return prefix.isEmpty() ? List.of() : lookup(categories, prefix, limit);
+    }
+
+    private List<Suggestion> lookup(Trie trie, String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            Node node = trie.find(prefix);
+            if (node == null) {
+                return List.of();
+            }
+            List<Suggestion> top = node.top();
+            return top.subList(0, Math.min(limit, top.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Long itemId, String title, String category) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String token : GermanStemmer.tokenize(title)) {
+            if (token.length() >= MIN_TERM_LENGTH) {
+                terms.add(token);
+            }
+        }
+        for (String term : terms) {
+            titleTerms.add(term, term, 1);
+        }
+        if (category != null && !category.isBlank()) {
+            categories.add(normalize(category), category, 1);
+        }
+        items.put(itemId, new IndexedItem(terms, category));
+    }
+
+    private void removeItem(Long itemId) {
+        IndexedItem item = items.remove(itemId);
+        if (item == null) {
+            return;
+        }
+
+        for (String term : item.terms()) {
+            titleTerms.add(term, term, -1);
+        }
+        if (item.category() != null && !item.category().isBlank()) {
+            categories.add(normalize(item.category()), item.category(), -1);
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null
+            ? ""
+            : text.toLowerCase(Locale.GERMAN).trim().replaceAll("\\s+", " ");
+    }
+
+    private static final class Trie {
+
+        private Node root = new Node();
+
+        void clear() {
+            root = new Node();
+        }
+
+        Node find(String key) {
+            Node node = root;
+            for (int i = 0; i < key.length() && node != null; i++) {
+                node = node.children.get(key.charAt(i));
+            }
+            return node;
+        }
+
+        /**
+         * Change the count of a key by delta, pruning nodes that become empty
+         */
+        void add(String key, String text, int delta) {
+            Deque<Node> path = new ArrayDeque<>();
+            Node node = root;
+            path.push(node);
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(
+                    key.charAt(i),
+                    c -> new Node()
+                );
+                path.push(node);
+            }
+
+            node.count += delta;
+            if (node.count > 0) {
+                node.text = text;
+            } else {
+                node.count = 0;
+                node.text = null;
+            }
+
+            // Invalidate cached results along the path, bottom-up
+            for (int i = key.length(); i >= 0; i--) {
+                Node current = path.pop();
+                current.top = null;
+                if (
+                    i > 0 &&
+                    current.count == 0 &&
+                    current.children.isEmpty()
+                ) {
+                    path.peek().children.remove(key.charAt(i - 1));
+                }
+            }
+        }
+    }
+
+    private static final class Node {
+
+        final Map<Character, Node> children = new HashMap<>();
+        String text;
+        int count;
+        // Best entries in this subtree, null when stale
+        volatile List<Suggestion> top;
+
+        List<Suggestion> top() {
+            List<Suggestion> cached = top;
+            if (cached != null) {
+                return cached;
+            }
+
+            List<Suggestion> candidates = new ArrayList<>();
+            if (count > 0) {
+                candidates.add(new Suggestion(text, count));
+            }
+            for (Node child : children.values()) {
+                candidates.addAll(child.top());
+            }
+            candidates.sort(
+                Comparator.comparingInt(Suggestion::count)
+                    .reversed()
+                    .thenComparing(Suggestion::text)
+            );
+            cached = List.copyOf(
+                candidates.subList(
+                    0,
+                    Math.min(MAX_SUGGESTIONS, candidates.size())
+                )
+            );
+            top = cached;
+            return cached;
+        }
+    }
+}
@@ -13,6 +13,7 @@ import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -58,6 +59,23 @@ public class LocalFileStorageService {
         }
     }
 
+    /**
+     * Store content that is already in memory, e.g. a generated image
+     */
+    public String uploadBytes(byte[] content, String fileName) {
+        try {
+            Path uploadDir = Paths.get(storagePath);
+            Files.createDirectories(uploadDir);
+            Files.write(uploadDir.resolve(fileName), content);
+
+            logger.info("File uploaded successfully: {}", fileName);
+            return fileName;
+        } catch (IOException e) {
+            logger.error("Error uploading file: {}", e.getMessage());
+            throw new RuntimeException("File upload failed", e);
+        }
+    }
+
     /**
      * Upload file with metadata
      */
@@ -87,6 +105,19 @@ public class LocalFileStorageService {
         }
     }
 
+    /**
+     * File as a resource backed by the file system, so it can be streamed
+     * (or handed to sendfile) instead of being read into memory
+     */
+    public FileSystemResource getFileResource(String fileName) {
+        Path uploadDir = Paths.get(storagePath).toAbsolutePath().normalize();
+        Path filePath = uploadDir.resolve(fileName).normalize();
+        if (!filePath.startsWith(uploadDir) || !Files.isRegularFile(filePath)) {
+            throw new RuntimeException("File not found: " + fileName);
+        }
+        return new FileSystemResource(filePath);
+    }
+
     /**
      * Delete file by name
      */
@@ -0,0 +1,280 @@
+package com.lap.service;
+
+import com.lap.entity.Item;
+import com.lap.entity.SavedSearch;
+import com.lap.entity.SavedSearchMatch;
+import com.lap.repository.SavedSearchMatchRepository;
+import com.lap.repository.SavedSearchRepository;
+import com.lap.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Matches new items against saved searches (a percolator).
+ *
+ * Each saved search is filed in a reverse index under a single anchor: its
+ * longest query term, else its category, else its first location word. A
+ * new item only looks up the anchors it contains and verifies those
+ * candidates, so the cost follows the number of matching searches, not the
+ * number of saved searches.
+ */
+@Service
+public class SavedSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(
+        SavedSearchService.class
+    );
+
+    public static final int MAX_SAVED_SEARCHES_PER_USER = 20;
+
+    @Autowired
+    private SavedSearchRepository savedSearchRepository;
+
+    @Autowired
+    private SavedSearchMatchRepository savedSearchMatchRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // anchor -> (saved search id -> query)
+    private final Map<String, Map<Long, Percolator>> queriesByAnchor =
+        new HashMap<>();
+    private final Map<Long, Percolator> queries = new HashMap<>();
+
+    /**
+     * Parsed saved search: all terms, the category and all location words
+     * must be present in an item for it to match
+     */
+    private record Percolator(
+        Long id,
+        Long userId,
+        Set<String> terms,
+        String category,
+        Set<String> locationWords,
+        String anchor
+    ) {}
+
+    /**
+     * Load all saved searches into the reverse index
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<SavedSearch> savedSearches;
+
+        // Loaded under the write lock, so searches saved during startup
+        // wait and apply on top of the snapshot instead of being lost
+        lock.writeLock().lock();
+        try {
+            savedSearches = savedSearchRepository.findAll();
+            queriesByAnchor.clear();
+            queries.clear();
+            for (SavedSearch savedSearch : savedSearches) {
+                addQuery(savedSearch);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info(
+            "Saved search index built: {} searches, {} anchors",
+            savedSearches.size(),
+            queriesByAnchor.size()
+        );
+    }
+
+    /**
+     * Whether a saved search has at least one criterion
+     */
+    public static boolean hasCriteria(
+        String query,
+        String category,
+        String location
+    ) {
+        return (
+            !GermanStemmer.tokenize(query).isEmpty() ||
+            (category != null && !category.isBlank()) ||
+            !GermanStemmer.tokenize(location).isEmpty()
+        );
+    }
+
+    /**
+     * Add a newly stored saved search
+     */
+    public void register(SavedSearch savedSearch) {
+        lock.writeLock().lock();
+        try {
+            addQuery(savedSearch);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a deleted saved search
+     */
+    public void unregister(Long savedSearchId) {
+        lock.writeLock().lock();
+        try {
+            Percolator query = queries.remove(savedSearchId);
+            if (query != null) {
+                Map<Long, Percolator> anchored = queriesByAnchor.get(
+                    query.anchor()
+                );
+                anchored.remove(savedSearchId);
+                if (anchored.isEmpty()) {
+                    queriesByAnchor.remove(query.anchor());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Match a new item against all saved searches and store an inbox entry
+     * for every match. The owner of the item is not notified about it.
+     * Failures are logged and never thrown.
+     *
+     * @return number of matches
+     */
+    public int percolate(Item item) {
+        Set<String> itemTerms = new HashSet<>();
+        itemTerms.addAll(GermanStemmer.analyze(item.getTitle()));
+        itemTerms.addAll(GermanStemmer.analyze(item.getDescription()));
+        itemTerms.addAll(GermanStemmer.analyze(item.getCategory()));
+        itemTerms.addAll(GermanStemmer.analyze(item.getLocation()));
+        Set<String> locationWords = new HashSet<>(
+            GermanStemmer.tokenize(item.getLocation())
+        );
+        String category = normalizeCategory(item.getCategory());
+        Long ownerId = item.getUser().getId();
+
+        List<Percolator> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Set<String> anchors = new HashSet<>();
+            for (String term : itemTerms) {
+                anchors.add("t:" + term);
+            }
+            anchors.add("c:" + category);
+            for (String word : locationWords) {
+                anchors.add("l:" + word);
+            }
+
+            for (String anchor : anchors) {
+                Map<Long, Percolator> candidates = queriesByAnchor.get(anchor);
+                if (candidates == null) {
+                    continue;
+                }
+                for (Percolator query : candidates.values()) {
+                    if (
+                        !query.userId().equals(ownerId) &&
+                        itemTerms.containsAll(query.terms()) &&
+                        (query.category() == null ||
+                            query.category().equals(category)) &&
+                        locationWords.containsAll(query.locationWords())
+                    ) {
+                        matches.add(query);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (matches.isEmpty()) {
+            return 0;
+        }
+
+        List<SavedSearchMatch> inboxEntries = new ArrayList<>();
+        for (Percolator query : matches) {
+            inboxEntries.add(
+                new SavedSearchMatch(
+                    savedSearchRepository.getReferenceById(query.id()),
+                    item,
+                    userRepository.getReferenceById(query.userId())
+                )
+            );
+        }
+        try {
+            savedSearchMatchRepository.saveAll(inboxEntries);
+        } catch (Exception e) {
+            // Notifications must not make the item creation fail
+            logger.warn(
+                "Failed to store saved search matches for item {}: {}",
+                item.getId(),
+                e.getMessage()
+            );
+            return 0;
+        }
+
+        logger.debug(
+            "Item {} matched {} saved searches",
+            item.getId(),
+            matches.size()
+        );
+        return matches.size();
+    }
+
+    private void addQuery(SavedSearch savedSearch) {
+        Set<String> terms = new LinkedHashSet<>(
+            GermanStemmer.analyze(savedSearch.getQuery())
+        );
+        String category = savedSearch.getCategory() != null &&
+            !savedSearch.getCategory().isBlank()
+            ? normalizeCategory(savedSearch.getCategory())
+            : null;
+        Set<String> locationWords = new LinkedHashSet<>(
+            GermanStemmer.tokenize(savedSearch.getLocation())
+        );
+
+        String anchor;
+        if (!terms.isEmpty()) {
+            // The longest term is usually the rarest one
+            anchor =
+                "t:" +
+                terms.stream().max(Comparator.comparingInt(String::length)).get();
+        } else if (category != null) {
+            anchor = "c:" + category;
+        } else if (!locationWords.isEmpty()) {
+            anchor = "l:" + locationWords.iterator().next();
+        } else {
+            return;
+        }
+
+        Percolator query = new Percolator(
+            savedSearch.getId(),
+            savedSearch.getUser().getId(),
+            terms,
+            category,
+            locationWords,
+            anchor
+        );
+        queries.put(query.id(), query);
+        queriesByAnchor
+            .computeIfAbsent(anchor, key -> new HashMap<>())
+            .put(query.id(), query);
+    }
+
+    private static String normalizeCategory(String category) {
+        return category == null
+            ? ""
+            : category.trim().toLowerCase(Locale.GERMAN);
+    }
+}
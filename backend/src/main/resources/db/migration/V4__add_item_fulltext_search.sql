@@ -0,0 +1,16 @@
+-- Migration to add full-text search on items
+-- Version: V4
+-- Description: Generated tsvector over title and description (german config) with a GIN index
+
+-- Title matches weigh more than description matches when ranking
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('german', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('german', coalesce(description, '')), 'B')
+    ) STORED;
+
+-- Create index for @@ queries
+CREATE INDEX IF NOT EXISTS idx_items_search_vector ON items USING GIN (search_vector);
+
+-- Add comment to the column
+COMMENT ON COLUMN items.search_vector IS 'Full-text search vector over title and description, maintained by PostgreSQL';
@@ -0,0 +1,10 @@
+-- Migration to add trigram indexes on items
+-- Version: V5
+-- Description: pg_trgm GIN indexes on title and description for fuzzy (typo-tolerant) search
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Used by the <% word-similarity operator of the fuzzy search and by the
+-- LIKE '%keyword%' substring search, which otherwise needs a sequential scan
+CREATE INDEX IF NOT EXISTS idx_items_title_trgm ON items USING GIN (title gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING GIN (description gin_trgm_ops);
@@ -0,0 +1,18 @@
+-- Migration to add coordinates to items
+-- Version: V6
+-- Description: Latitude/longitude geocoded from items.location with an earthdistance GiST index for radius search
+
+CREATE EXTENSION IF NOT EXISTS cube;
+CREATE EXTENSION IF NOT EXISTS earthdistance;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE items ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+
+-- Used by earth_box(...) @> ll_to_earth(latitude, longitude) to prune a
+-- radius search to its bounding box (rows without coordinates never match)
+CREATE INDEX IF NOT EXISTS idx_items_earth_location ON items
+    USING GIST (ll_to_earth(latitude, longitude));
+
+-- Add comments to the columns
+COMMENT ON COLUMN items.latitude IS 'Latitude geocoded from location by the backend, NULL if unknown';
+COMMENT ON COLUMN items.longitude IS 'Longitude geocoded from location by the backend, NULL if unknown';
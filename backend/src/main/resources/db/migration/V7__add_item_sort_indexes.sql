@@ -0,0 +1,17 @@
+-- Migration to add sort indexes on items
+-- Version: V7
+-- Description: Composite indexes for the sortBy options of GET /api/items (createdAt, updatedAt, title, location)
+
+-- Every sort ends with id as tie-breaker in the same direction, so one
+-- index per field serves both asc and desc (scanned backwards for desc).
+-- A page is then read from an index range scan instead of sorting all rows.
+CREATE INDEX IF NOT EXISTS idx_items_created_at_id ON items (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_items_updated_at_id ON items (updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_items_title_id ON items (title, id);
+CREATE INDEX IF NOT EXISTS idx_items_location_id ON items (location, id);
+
+-- Same for listings filtered by category
+CREATE INDEX IF NOT EXISTS idx_items_category_created_at_id ON items (category, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_items_category_updated_at_id ON items (category, updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_items_category_title_id ON items (category, title, id);
+CREATE INDEX IF NOT EXISTS idx_items_category_location_id ON items (category, location, id);
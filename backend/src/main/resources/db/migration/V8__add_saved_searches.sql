@@ -0,0 +1,28 @@
+-- Migration to add saved searches
+-- Version: V8
+-- Description: Saved searches per user and the inbox of new items matching them
+
+CREATE TABLE IF NOT EXISTS saved_searches (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    query VARCHAR(200),
+    category VARCHAR(255),
+    location VARCHAR(255),
+    created_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_saved_searches_user_id ON saved_searches(user_id);
+
+CREATE TABLE IF NOT EXISTS saved_search_matches (
+    id BIGSERIAL PRIMARY KEY,
+    saved_search_id BIGINT NOT NULL REFERENCES saved_searches(id) ON DELETE CASCADE,
+    item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    is_read BOOLEAN DEFAULT FALSE,
+    created_at TIMESTAMP,
+    UNIQUE (saved_search_id, item_id)
+);
+
+-- Inbox reads: newest matches of one user
+CREATE INDEX IF NOT EXISTS idx_saved_search_matches_user_created_at ON saved_search_matches(user_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_saved_search_matches_item_id ON saved_search_matches(item_id);
@@ -0,0 +1,175 @@
+package com.lap.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lap.dto.ItemResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Bytes on the wire and serialization CPU per response format for a
+ * 1,000-item list response, with and without gzip as server.compression
+ * applies it. The mappers come from MessageConverterConfig.
+ *
+ * Run with: mvn -Pbenchmark test
+ */
+class ResponseFormatBenchmark {
+
+    private static final int ITEMS = 1000;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 500;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private record Result(
+        String format,
+        int bytes,
+        int gzipBytes,
+        double cpuMillis,
+        long allocatedBytes
+    ) {}
+
+    @Test
+    void binaryFormatsAreSmallerThanJson() {
+        MessageConverterConfig config = new MessageConverterConfig();
+        Map<String, Object> response = listResponse();
+
+        Result json = measure(
+            "json",
+            Jackson2ObjectMapperBuilder.json().build(),
+            response
+        );
+        Result cbor = measure(
+            "cbor",
+            config
+                .cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json())
+                .getObjectMapper(),
+            response
+        );
+        Result smile = measure(
+            "smile",
+            config
+                .smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json())
+                .getObjectMapper(),
+            response
+        );
+
+        System.out.printf(
+            "%-6s %10s %10s %10s %12s%n",
+            "format",
+            "bytes",
+            "gzip",
+            "cpu ms",
+            "alloc bytes"
+        );
+        for (Result result : List.of(json, cbor, smile)) {
+            System.out.printf(
+                "%-6s %10d %10d %10.3f %12d%n",
+                result.format(),
+                result.bytes(),
+                result.gzipBytes(),
+                result.cpuMillis(),
+                result.allocatedBytes()
+            );
+        }
+        assertThat(cbor.bytes()).isLessThan(json.bytes());
+        assertThat(smile.bytes()).isLessThan(json.bytes());
+        assertThat(json.gzipBytes()).isLessThan(json.bytes());
+    }
+
+    /**
+     * A list response as the item endpoints send it
+     */
+    private static Map<String, Object> listResponse() {
+        List<ItemResponse> items = new ArrayList<>();
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(
+                new ItemResponse(
+                    (long) i,
+                    "Fahrrad " + i,
+                    "Gut erhaltenes Trekkingrad mit 28 Zoll, Nabendynamo " +
+                    "und neuen Reifen. Nur Abholung.",
+                    i % 2 == 0 ? "Sport" : "Haushalt",
+                    "Berlin",
+                    "gebraucht",
+                    List.of(
+                        "http://localhost:8080/api/files/download/item_" +
+                        i +
+                        "_0.jpg",
+                        "http://localhost:8080/api/files/download/item_" +
+                        i +
+                        "_1.jpg"
+                    ),
+                    i % 5 == 0,
+                    false,
+                    createdAt.plusMinutes(i).toString()
+                )
+            );
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.put("data", items);
+        return response;
+    }
+
+    private static Result measure(
+        String format,
+        ObjectMapper mapper,
+        Map<String, Object> response
+    ) {
+        byte[] body = serialize(mapper, response);
+        for (int i = 0; i < WARMUP; i++) {
+            serialize(mapper, response);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long cpuBefore = THREADS.getCurrentThreadCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            serialize(mapper, response);
+        }
+        long cpu = THREADS.getCurrentThreadCpuTime() - cpuBefore;
+        long allocated =
+            THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        return new Result(
+            format,
+            body.length,
+            gzip(body).length,
+            cpu / 1_000_000.0 / ITERATIONS,
+            allocated / ITERATIONS
+        );
+    }
+
+    private static byte[] serialize(ObjectMapper mapper, Object value) {
+        try {
+            return mapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(outputStream)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,194 @@
+package com.lap.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.lap.dto.ItemImage;
+import com.lap.dto.ItemResponse;
+import com.lap.dto.ItemSummary;
+import com.lap.entity.Item;
+import com.lap.entity.User;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Allocation and latency of rendering one page of the item list, before
+ * and after the switch to projections: managed Item entities copied into
+ * a HashMap per item, against ItemSummary rows plus one image query
+ * rendered into ItemResponse records.
+ *
+ * Runs against H2, so the numbers compare the two mappings rather than
+ * predict production latency. Run with: mvn -Pbenchmark test
+ */
+@DataJpaTest(
+    properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    }
+)
+class ItemListMappingBenchmark {
+
+    private static final int ITEMS = 1000;
+    private static final int PAGE_SIZE = 100;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 500;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final Pageable page = PageRequest.of(
+        0,
+        PAGE_SIZE,
+        Sort.by(Sort.Direction.DESC, "createdAt", "id")
+    );
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private record Result(double millisPerPage, long bytesPerPage) {}
+
+    @BeforeEach
+    void setUp() {
+        User user = entityManager.persist(
+            new User("seller", "seller@example.com", "secret")
+        );
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = new Item(
+                "Fahrrad " + i,
+                "Gut erhaltenes Trekkingrad mit 28 Zoll, Nabendynamo und " +
+                "neuen Reifen. Nur Abholung.",
+                "Sport",
+                "Berlin",
+                "gebraucht",
+                user
+            );
+            item.setImageUrls(
+                List.of(
+                    "/api/files/download/item_" + i + "_0.jpg",
+                    "/api/files/download/item_" + i + "_1.jpg"
+                )
+            );
+            entityManager.persist(item);
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void projectionsAllocateLessThanEntities() {
+        Result entities = measure(this::renderFromEntities);
+        Result projections = measure(this::renderFromProjections);
+
+        System.out.printf(
+            "Item list page of %d: entities %.3f ms, %d bytes; " +
+            "projections %.3f ms, %d bytes%n",
+            PAGE_SIZE,
+            entities.millisPerPage(),
+            entities.bytesPerPage(),
+            projections.millisPerPage(),
+            projections.bytesPerPage()
+        );
+        assertThat(projections.bytesPerPage()).isLessThan(
+            entities.bytesPerPage()
+        );
+    }
+
+    /**
+     * The list rendering before projections: entities with their owner
+     * and images, copied into one map per item
+     */
+    private List<Map<String, Object>> renderFromEntities() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Item item : itemRepository.findAll(page)) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", item.getId());
+            row.put("title", item.getTitle());
+            row.put("description", item.getDescription());
+            row.put("category", item.getCategory());
+            row.put("location", item.getLocation());
+            row.put("condition", item.getCondition());
+            row.put("imageUrls", new ArrayList<>(item.getImageUrls()));
+            row.put("isReserved", item.getIsReserved());
+            row.put("isMyItem", "seller".equals(item.getUser().getUsername()));
+            row.put("datePosted", item.getCreatedAt().toString());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * The list rendering of ItemController: summary rows and one image
+     * query, into records
+     */
+    private List<ItemResponse> renderFromProjections() {
+        List<ItemSummary> summaries = itemRepository
+            .findSummaries(true, page)
+            .getContent();
+        Map<Long, List<String>> imagesByItem = new HashMap<>();
+        for (ItemImage image : itemRepository.findImagesByItemIds(
+            summaries.stream().map(ItemSummary::id).toList()
+        )) {
+            imagesByItem
+                .computeIfAbsent(image.itemId(), id -> new ArrayList<>())
+                .add(image.imageUrl());
+        }
+
+        List<ItemResponse> rows = new ArrayList<>(summaries.size());
+        for (ItemSummary summary : summaries) {
+            rows.add(
+                new ItemResponse(
+                    summary.id(),
+                    summary.title(),
+                    summary.description(),
+                    summary.category(),
+                    summary.location(),
+                    summary.condition(),
+                    imagesByItem.getOrDefault(summary.id(), List.of()),
+                    summary.isReserved(),
+                    "seller".equals(summary.ownerUsername()),
+                    summary.createdAt().toString()
+                )
+            );
+        }
+        return rows;
+    }
+
+    /**
+     * Average time and heap allocation per page. The persistence context is
+     * cleared before every page, as every request starts with an empty one.
+     */
+    private Result measure(Supplier<List<?>> render) {
+        for (int i = 0; i < WARMUP; i++) {
+            entityManager.clear();
+            assertThat(render.get()).hasSize(PAGE_SIZE);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            entityManager.clear();
+            render.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated =
+            THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        return new Result(
+            elapsed / 1_000_000.0 / ITERATIONS,
+            allocated / ITERATIONS
+        );
+    }
+}
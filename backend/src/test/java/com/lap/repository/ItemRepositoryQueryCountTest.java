@@ -0,0 +1,115 @@
+package com.lap.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.lap.entity.Item;
+import com.lap.entity.User;
+import java.util.List;
+import java.util.function.Function;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Rendering a page of items reads each item's owner and image list. That
+ * must cost the same number of statements for 1 item as for 50, not one
+ * query per item (N+1).
+ */
+@DataJpaTest(
+    properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+    }
+)
+class ItemRepositoryQueryCountTest {
+
+    private static final int USERS = 10;
+    private static final int ITEMS_PER_USER = 6;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager
+            .getEntityManager()
+            .getEntityManagerFactory()
+            .unwrap(SessionFactory.class)
+            .getStatistics();
+
+        for (int u = 0; u < USERS; u++) {
+            User user = entityManager.persist(
+                new User("user" + u, "user" + u + "@example.com", "secret")
+            );
+            for (int i = 0; i < ITEMS_PER_USER; i++) {
+                Item item = new Item(
+                    "Fahrrad " + u + "-" + i,
+                    "Gut erhalten",
+                    "Sport",
+                    "Berlin",
+                    "gebraucht",
+                    user
+                );
+                item.setImageUrls(
+                    List.of(
+                        "/api/files/download/a.jpg",
+                        "/api/files/download/b.jpg"
+                    )
+                );
+                entityManager.persist(item);
+            }
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void pagedFindAllUsesConstantQueryCount() {
+        Function<Pageable, List<Item>> findAll = pageable ->
+            itemRepository.findAll(pageable).getContent();
+
+        assertThat(countStatements(findAll, 1)).isEqualTo(
+            countStatements(findAll, 50)
+        );
+    }
+
+    @Test
+    void keysetFirstPageUsesConstantQueryCount() {
+        Function<Pageable, List<Item>> findFirstPage =
+            itemRepository::findFirstPage;
+
+        assertThat(countStatements(findFirstPage, 1)).isEqualTo(
+            countStatements(findFirstPage, 50)
+        );
+    }
+
+    /**
+     * Statements run to load one page and read what createItemResponse
+     * reads from each item
+     */
+    private long countStatements(
+        Function<Pageable, List<Item>> query,
+        int pageSize
+    ) {
+        entityManager.clear();
+        statistics.clear();
+
+        List<Item> items = query.apply(PageRequest.of(0, pageSize));
+        assertThat(items).hasSize(pageSize);
+        for (Item item : items) {
+            assertThat(item.getUser().getUsername()).isNotNull();
+            assertThat(item.getImageUrls()).hasSize(2);
+        }
+        return statistics.getPrepareStatementCount();
+    }
+}
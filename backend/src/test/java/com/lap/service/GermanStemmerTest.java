@@ -0,0 +1,58 @@
+package com.lap.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class GermanStemmerTest {
+
+    @Test
+    void tokenizeLowerCasesAndSplitsOnNonLetters() {
+        assertThat(
+            GermanStemmer.tokenize("Kinder-Fahrrad, rot!")
+        ).containsExactly("kinder", "fahrrad", "rot");
+        assertThat(GermanStemmer.tokenize(null)).isEmpty();
+        assertThat(GermanStemmer.tokenize(" ,; ")).isEmpty();
+    }
+
+    @Test
+    void inflectionsShareTheirStem() {
+        assertThat(GermanStemmer.stem("fahrräder")).isEqualTo("fahrrad");
+        assertThat(GermanStemmer.stem("fahrrads")).isEqualTo("fahrrad");
+        assertThat(GermanStemmer.stem("lampen")).isEqualTo(
+            GermanStemmer.stem("lampe")
+        );
+        assertThat(GermanStemmer.stem("männer")).isEqualTo(
+            GermanStemmer.stem("mann")
+        );
+    }
+
+    @Test
+    void umlautsAndSharpSAreFolded() {
+        assertThat(GermanStemmer.stem("küche")).isEqualTo("kuch");
+        assertThat(GermanStemmer.stem("straße")).isEqualTo(
+            GermanStemmer.stem("strassen")
+        );
+    }
+
+    @Test
+    void geIsOnlyStrippedFromLongerWords() {
+        assertThat(GermanStemmer.stem("gebraucht")).isEqualTo("brauch");
+        assertThat(GermanStemmer.stem("geschirr")).isEqualTo("schirr");
+        assertThat(GermanStemmer.stem("gehen")).isEqualTo("geh");
+        assertThat(GermanStemmer.stem("gesch")).isEqualTo("gesch");
+    }
+
+    @Test
+    void characterGroupsAreNotCutApart() {
+        assertThat(GermanStemmer.stem("tische")).isEqualTo("tisch");
+        assertThat(GermanStemmer.stem("schränke")).isEqualTo("schrank");
+        assertThat(GermanStemmer.stem("betten")).isEqualTo("bett");
+    }
+
+    @Test
+    void shortWordsAreKept() {
+        assertThat(GermanStemmer.stem("ab")).isEqualTo("ab");
+        assertThat(GermanStemmer.stem("")).isEqualTo("");
+    }
+}
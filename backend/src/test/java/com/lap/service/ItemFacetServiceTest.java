@@ -0,0 +1,172 @@
+package com.lap.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.lap.dto.ItemFacetValues;
+import com.lap.entity.Item;
+import com.lap.repository.ItemRepository;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ItemFacetServiceTest {
+
+    private ItemRepository itemRepository;
+    private ItemFacetService facets;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = mock(ItemRepository.class);
+        facets = newService();
+
+        when(itemRepository.findAllFacetValues()).thenReturn(
+            List.of(
+                new ItemFacetValues(1L, "Sport", "Berlin", "neu", false),
+                new ItemFacetValues(2L, "Sport", "Hamburg", "gebraucht", true),
+                new ItemFacetValues(3L, "Möbel", "Berlin", "gebraucht", false),
+                new ItemFacetValues(4L, "Möbel", "Berlin", "gebraucht", null)
+            )
+        );
+        facets.rebuild();
+    }
+
+    @Test
+    void countsAllItemsWithoutFilters() {
+        Map<String, Map<String, Long>> counts = facets.count(
+            null,
+            null,
+            null,
+            null
+        );
+
+        assertThat(counts.get("category")).containsEntry("Sport", 2L);
+        assertThat(counts.get("category")).containsEntry("Möbel", 2L);
+        assertThat(counts.get("location")).containsEntry("Berlin", 3L);
+        assertThat(counts.get("condition")).containsEntry("gebraucht", 3L);
+        // A null isReserved counts as not reserved
+        assertThat(counts.get("isReserved")).containsEntry("false", 3L);
+        assertThat(counts.get("isReserved")).containsEntry("true", 1L);
+    }
+
+    @Test
+    void facetIgnoresItsOwnFilter() {
+        Map<String, Map<String, Long>> counts = facets.count(
+            "Sport",
+            null,
+            null,
+            null
+        );
+
+        // The alternatives to the selected category stay visible
+        assertThat(counts.get("category")).containsEntry("Möbel", 2L);
+        assertThat(counts.get("location")).containsEntry("Berlin", 1L);
+        assertThat(counts.get("location")).containsEntry("Hamburg", 1L);
+        assertThat(counts.get("condition")).containsEntry("neu", 1L);
+    }
+
+    @Test
+    void mostFrequentValueComesFirst() {
+        Map<String, Long> locations = facets
+            .count(null, null, null, null)
+            .get("location");
+
+        assertThat(locations.keySet()).containsExactly("Berlin", "Hamburg");
+    }
+
+    @Test
+    void countsOnlyTheGivenItems() {
+        Map<String, Map<String, Long>> counts = facets.count(
+            List.of(1L, 2L, 99L),
+            null,
+            null,
+            null,
+            null
+        );
+
+        assertThat(counts.get("category")).containsOnlyKeys("Sport");
+        assertThat(counts.get("category")).containsEntry("Sport", 2L);
+    }
+
+    @Test
+    void reindexMovesAnItemBetweenValues() {
+        Item item = item(2L, "Möbel", "Hamburg", "gebraucht", false);
+        facets.index(item);
+
+        Map<String, Long> categories = facets
+            .count(null, null, null, null)
+            .get("category");
+        assertThat(categories).containsEntry("Sport", 1L);
+        assertThat(categories).containsEntry("Möbel", 3L);
+    }
+
+    @Test
+    void removedValuesDisappear() {
+        facets.remove(2L);
+
+        Map<String, Map<String, Long>> counts = facets.count(
+            null,
+            null,
+            null,
+            null
+        );
+        assertThat(counts.get("location")).doesNotContainKey("Hamburg");
+        assertThat(counts.get("isReserved")).doesNotContainKey("true");
+    }
+
+    @Test
+    void writesDuringRebuildAreNotLost() throws InterruptedException {
+        facets = newService();
+        Item created = item(5L, "Garten", "Köln", "neu", false);
+        Thread writer = new Thread(() -> facets.index(created));
+        // The snapshot was read before the new item was saved
+        when(itemRepository.findAllFacetValues()).thenAnswer(invocation -> {
+            writer.start();
+            ItemSearchIndexTest.awaitBlockedOrDone(writer);
+            return List.of(
+                new ItemFacetValues(1L, "Sport", "Berlin", "neu", false)
+            );
+        });
+
+        facets.rebuild();
+        writer.join();
+
+        assertThat(facets.isReady()).isTrue();
+        assertThat(
+            facets.count(null, null, null, null).get("category")
+        ).containsOnlyKeys("Sport", "Garten");
+    }
+
+    private ItemFacetService newService() {
+        ItemFacetService service = new ItemFacetService();
+        ReflectionTestUtils.setField(
+            service,
+            "itemRepository",
+            itemRepository
+        );
+        return service;
+    }
+
+    private static Item item(
+        Long id,
+        String category,
+        String location,
+        String condition,
+        boolean isReserved
+    ) {
+        Item item = new Item(
+            "Artikel " + id,
+            "Beschreibung",
+            category,
+            location,
+            condition,
+            null
+        );
+        item.setId(id);
+        item.setIsReserved(isReserved);
+        return item;
+    }
+}
@@ -0,0 +1,166 @@
+package com.lap.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.lap.entity.Item;
+import com.lap.repository.ItemRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Matching of the in-memory search index, which has to find the same items
+ * for word fragments as the LIKE search it replaced
+ */
+class ItemSearchIndexTest {
+
+    private ItemRepository itemRepository;
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = mock(ItemRepository.class);
+        index = new ItemSearchIndex();
+        ReflectionTestUtils.setField(index, "itemRepository", itemRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "recencyWeight", 0.5);
+        ReflectionTestUtils.setField(index, "recencyHalfLifeDays", 30.0);
+
+        index.index(item(1L, "Geschirr Set"));
+        index.index(item(2L, "Fahrrad rot"));
+        index.index(item(3L, "Gebrauchte Fahrräder"));
+    }
+
+    @Test
+    void lastTermIsMatchedAsPrefix() {
+        assertThat(search("fahr")).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(search("rot fahr")).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void prefixMatchesWordsThatStemDifferently() {
+        // "gesch" keeps its "ge", "Geschirr" is indexed as "schirr"
+        assertThat(GermanStemmer.stem("gesch")).isEqualTo("gesch");
+        assertThat(GermanStemmer.stem("geschirr")).isEqualTo("schirr");
+
+        assertThat(search("gesch")).containsExactly(1L);
+        assertThat(search("geschi")).containsExactly(1L);
+        assertThat(search("Geschirr")).containsExactly(1L);
+    }
+
+    @Test
+    void completeLastTermStillMatchesOtherInflections() {
+        assertThat(search("Fahrräder")).containsExactlyInAnyOrder(2L, 3L);
+    }
+
+    @Test
+    void earlierTermsMatchWholeWordsOnly() {
+        assertThat(search("fahr rot")).containsExactly(2L);
+        assertThat(search("fahr* rot")).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void titleMatchesRankAboveDescriptionMatches() {
+        index.index(item(4L, "Sofa", "Mit passender Lampe", "Möbel"));
+        index.index(item(5L, "Lampe", "Messing", "Möbel"));
+
+        assertThat(search("Lampe")).containsExactly(5L, 4L);
+    }
+
+    @Test
+    void categoryRestrictsMatches() {
+        index.index(item(4L, "Fahrradhelm", "Größe M", "Sport"));
+
+        assertThat(index.search("fahr", "Sport", 0, 10).ids()).containsExactly(
+            4L
+        );
+    }
+
+    @Test
+    void pageIsLimitedButTotalCountsAllMatches() {
+        ItemSearchIndex.SearchResult result = index.search("fahr", null, 0, 1);
+
+        assertThat(result.ids()).hasSize(1);
+        assertThat(result.total()).isEqualTo(2L);
+    }
+
+    @Test
+    void reindexingReplacesTheOldTerms() {
+        index.index(item(2L, "Roller blau"));
+
+        assertThat(search("rot")).isEmpty();
+        assertThat(search("Roller")).containsExactly(2L);
+        assertThat(search("Fahrrad")).containsExactly(3L);
+    }
+
+    @Test
+    void removedItemsAndTheirWordsAreGone() {
+        index.remove(1L);
+
+        assertThat(search("Geschirr")).isEmpty();
+        assertThat(search("gesch")).isEmpty();
+        assertThat(search("Berlin")).containsExactlyInAnyOrder(2L, 3L);
+    }
+
+    @Test
+    void writesDuringRebuildAreNotLost() throws InterruptedException {
+        Item created = item(4L, "Kinderwagen");
+        Thread writer = new Thread(() -> index.index(created));
+        // The snapshot was read before the new item was saved
+        when(itemRepository.findAll()).thenAnswer(invocation -> {
+            writer.start();
+            awaitBlockedOrDone(writer);
+            return List.of(item(1L, "Geschirr Set"));
+        });
+
+        index.rebuild();
+        writer.join();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(search("Kinderwagen")).containsExactly(4L);
+        assertThat(search("Geschirr")).containsExactly(1L);
+    }
+
+    private List<Long> search(String query) {
+        return index.search(query, null, 0, 10).ids();
+    }
+
+    /**
+     * Wait until a thread waits for a lock or has finished
+     */
+    static void awaitBlockedOrDone(Thread thread) {
+        while (
+            thread.getState() == Thread.State.NEW ||
+            thread.getState() == Thread.State.RUNNABLE
+        ) {
+            Thread.onSpinWait();
+        }
+    }
+
+    static Item item(Long id, String title) {
+        return item(id, title, "Gut erhalten", "Haushalt");
+    }
+
+    static Item item(
+        Long id,
+        String title,
+        String description,
+        String category
+    ) {
+        Item item = new Item(
+            title,
+            description,
+            category,
+            "Berlin",
+            "gebraucht",
+            null
+        );
+        item.setId(id);
+        item.setCreatedAt(LocalDateTime.now());
+        return item;
+    }
+}
@@ -0,0 +1,176 @@
+package com.lap.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.lap.dto.ItemSummary;
+import com.lap.entity.Item;
+import com.lap.repository.ItemRepository;
+import com.lap.service.ItemSuggestService.Suggestion;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ItemSuggestServiceTest {
+
+    private ItemRepository itemRepository;
+    private ItemSuggestService suggest;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository = mock(ItemRepository.class);
+        suggest = newService();
+
+        when(itemRepository.findAllSummaries(false)).thenReturn(
+            List.of(
+                summary(1L, "Rotes Fahrrad", "Sport"),
+                summary(2L, "Fahrrad Fahrrad blau", "Sport"),
+                summary(3L, "Fahrradhelm", "Sport"),
+                summary(4L, "Sofa", "Möbel")
+            )
+        );
+        suggest.rebuild();
+    }
+
+    @Test
+    void completesTheLastWordAndKeepsTheOthers() {
+        assertThat(suggest.suggestTerms("rotes fahr", 10)).containsExactly(
+            new Suggestion("rotes fahrrad", 2),
+            new Suggestion("rotes fahrradhelm", 1)
+        );
+    }
+
+    @Test
+    void rankedByItemCountThenAlphabetically() {
+        index(5L, "Sessel", "Möbel");
+
+        assertThat(suggest.suggestTerms("s", 10)).containsExactly(
+            new Suggestion("sessel", 1),
+            new Suggestion("sofa", 1)
+        );
+        assertThat(suggest.suggestTerms("fahr", 1)).containsExactly(
+            new Suggestion("fahrrad", 2)
+        );
+    }
+
+    @Test
+    void suggestsCategoriesInTheirOriginalCase() {
+        assertThat(suggest.suggestCategories("SP", 10)).containsExactly(
+            new Suggestion("Sport", 3)
+        );
+        assertThat(suggest.suggestCategories(" ", 10)).isEmpty();
+    }
+
+    @Test
+    void writesInvalidateCachedResults() {
+        assertThat(suggest.suggestTerms("fahr", 1)).containsExactly(
+            new Suggestion("fahrrad", 2)
+        );
+
+        index(5L, "Fahrradhelm rot", "Sport");
+        index(6L, "Fahrradhelm klein", "Sport");
+
+        assertThat(suggest.suggestTerms("fahr", 1)).containsExactly(
+            new Suggestion("fahrradhelm", 3)
+        );
+    }
+
+    @Test
+    void removingTheLastItemPrunesItsNodes() {
+        suggest.remove(1L);
+        suggest.remove(2L);
+        suggest.remove(3L);
+        suggest.remove(4L);
+
+        assertThat(suggest.suggestTerms("fahr", 10)).isEmpty();
+        assertThat(suggest.suggestCategories("s", 10)).isEmpty();
+        assertThat(rootChildren("titleTerms")).isEmpty();
+        assertThat(rootChildren("categories")).isEmpty();
+    }
+
+    @Test
+    void reindexingReplacesTheOldTerms() {
+        index(4L, "Sessel", "Möbel");
+
+        assertThat(suggest.suggestTerms("so", 10)).isEmpty();
+        assertThat(suggest.suggestTerms("se", 10)).containsExactly(
+            new Suggestion("sessel", 1)
+        );
+    }
+
+    @Test
+    void writesDuringRebuildAreNotLost() throws InterruptedException {
+        suggest = newService();
+        Item created = item(5L, "Kinderwagen", "Baby");
+        Thread writer = new Thread(() -> suggest.index(created));
+        // The snapshot was read before the new item was saved
+        when(itemRepository.findAllSummaries(false)).thenAnswer(invocation -> {
+            writer.start();
+            ItemSearchIndexTest.awaitBlockedOrDone(writer);
+            return List.of(summary(1L, "Rotes Fahrrad", "Sport"));
+        });
+
+        suggest.rebuild();
+        writer.join();
+
+        assertThat(suggest.suggestTerms("kinder", 10)).containsExactly(
+            new Suggestion("kinderwagen", 1)
+        );
+        assertThat(suggest.suggestTerms("fahr", 10)).containsExactly(
+            new Suggestion("fahrrad", 1)
+        );
+    }
+
+    private ItemSuggestService newService() {
+        ItemSuggestService service = new ItemSuggestService();
+        ReflectionTestUtils.setField(
+            service,
+            "itemRepository",
+            itemRepository
+        );
+        return service;
+    }
+
+    private void index(Long id, String title, String category) {
+        suggest.index(item(id, title, category));
+    }
+
+    private Map<?, ?> rootChildren(String trie) {
+        Object root = ReflectionTestUtils.getField(
+            ReflectionTestUtils.getField(suggest, trie),
+            "root"
+        );
+        return (Map<?, ?>) ReflectionTestUtils.getField(root, "children");
+    }
+
+    private static ItemSummary summary(Long id, String title, String category) {
+        return new ItemSummary(
+            id,
+            title,
+            null,
+            category,
+            "Berlin",
+            "gebraucht",
+            false,
+            "seller",
+            LocalDateTime.now()
+        );
+    }
+
+    private static Item item(Long id, String title, String category) {
+        Item item = new Item(
+            title,
+            "Beschreibung",
+            category,
+            "Berlin",
+            "gebraucht",
+            null
+        );
+        item.setId(id);
+        return item;
+    }
+}
@@ -0,0 +1,218 @@
+package com.lap.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.lap.entity.Item;
+import com.lap.entity.SavedSearch;
+import com.lap.entity.SavedSearchMatch;
+import com.lap.entity.User;
+import com.lap.repository.SavedSearchMatchRepository;
+import com.lap.repository.SavedSearchRepository;
+import com.lap.repository.UserRepository;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class SavedSearchServiceTest {
+
+    private final User seller = user(1L, "seller");
+    private final User buyer = user(2L, "buyer");
+
+    private SavedSearchRepository savedSearchRepository;
+    private SavedSearchService percolator;
+    private final Map<Long, SavedSearch> savedSearchesById = new HashMap<>();
+    private final List<SavedSearchMatch> stored = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        savedSearchRepository = mock(SavedSearchRepository.class);
+        SavedSearchMatchRepository savedSearchMatchRepository = mock(
+            SavedSearchMatchRepository.class
+        );
+        when(savedSearchRepository.getReferenceById(any())).thenAnswer(
+            invocation -> savedSearchesById.get(invocation.getArgument(0))
+        );
+        when(savedSearchMatchRepository.saveAll(any())).thenAnswer(
+            invocation -> {
+                Iterable<SavedSearchMatch> matches = invocation.getArgument(0);
+                matches.forEach(stored::add);
+                return stored;
+            }
+        );
+
+        percolator = new SavedSearchService();
+        ReflectionTestUtils.setField(
+            percolator,
+            "savedSearchRepository",
+            savedSearchRepository
+        );
+        ReflectionTestUtils.setField(
+            percolator,
+            "savedSearchMatchRepository",
+            savedSearchMatchRepository
+        );
+        ReflectionTestUtils.setField(
+            percolator,
+            "userRepository",
+            mock(UserRepository.class)
+        );
+    }
+
+    @Test
+    void allQueryTermsMustOccurInTheItem() {
+        register(10L, buyer, "rotes fahrrad", null, null);
+        register(11L, buyer, "fahrrad blau", null, null);
+
+        assertThat(matchedIds(item("Rotes Fahrrad", "Sport", "Berlin")))
+            .containsExactly(10L);
+    }
+
+    @Test
+    void termsMatchOtherInflections() {
+        register(10L, buyer, "Fahrräder", null, null);
+
+        assertThat(matchedIds(item("Fahrrad", "Sport", "Berlin")))
+            .containsExactly(10L);
+    }
+
+    @Test
+    void categoryIsComparedIgnoringCase() {
+        register(10L, buyer, "lampe", " möbel ", null);
+        register(11L, buyer, "lampe", "Garten", null);
+
+        assertThat(matchedIds(item("Lampe", "Möbel", "Berlin")))
+            .containsExactly(10L);
+    }
+
+    @Test
+    void searchesWithoutTermsAreAnchoredOnCategoryOrLocation() {
+        register(10L, buyer, null, "Sport", null);
+        register(11L, buyer, null, null, "Berlin");
+        register(12L, buyer, null, null, "Hamburg");
+
+        assertThat(matchedIds(item("Roller", "Sport", "Berlin Mitte")))
+            .containsExactlyInAnyOrder(10L, 11L);
+    }
+
+    @Test
+    void allLocationWordsMustMatch() {
+        register(10L, buyer, "roller", null, "Berlin Mitte");
+
+        assertThat(matchedIds(item("Roller", "Sport", "Berlin"))).isEmpty();
+        assertThat(matchedIds(item("Roller", "Sport", "Mitte, Berlin")))
+            .containsExactly(10L);
+    }
+
+    @Test
+    void ownersAreNotNotifiedAboutTheirOwnItems() {
+        register(10L, seller, "roller", null, null);
+        register(11L, buyer, "roller", null, null);
+
+        assertThat(matchedIds(item("Roller", "Sport", "Berlin")))
+            .containsExactly(11L);
+    }
+
+    @Test
+    void unregisteredSearchesNoLongerMatch() {
+        register(10L, buyer, "roller", null, null);
+        percolator.unregister(10L);
+
+        assertThat(percolator.percolate(item("Roller", "Sport", "Berlin")))
+            .isEqualTo(0);
+    }
+
+    @Test
+    void searchesNeedAtLeastOneCriterion() {
+        assertThat(SavedSearchService.hasCriteria(" ", null, "")).isFalse();
+        assertThat(SavedSearchService.hasCriteria(null, "Sport", null))
+            .isTrue();
+        assertThat(SavedSearchService.hasCriteria(null, null, "Berlin"))
+            .isTrue();
+    }
+
+    @Test
+    void searchesSavedDuringRebuildAreNotLost() throws InterruptedException {
+        SavedSearch created = savedSearch(11L, buyer, "roller", null, null);
+        Thread writer = new Thread(() -> percolator.register(created));
+        // The snapshot was read before the new search was saved
+        when(savedSearchRepository.findAll()).thenAnswer(invocation -> {
+            writer.start();
+            ItemSearchIndexTest.awaitBlockedOrDone(writer);
+            return List.of(savedSearch(10L, buyer, "roller", null, null));
+        });
+
+        percolator.rebuild();
+        writer.join();
+
+        assertThat(matchedIds(item("Roller", "Sport", "Berlin")))
+            .containsExactlyInAnyOrder(10L, 11L);
+    }
+
+    private void register(
+        Long id,
+        User user,
+        String query,
+        String category,
+        String location
+    ) {
+        percolator.register(savedSearch(id, user, query, category, location));
+    }
+
+    private SavedSearch savedSearch(
+        Long id,
+        User user,
+        String query,
+        String category,
+        String location
+    ) {
+        SavedSearch savedSearch = new SavedSearch(
+            user,
+            query,
+            category,
+            location
+        );
+        savedSearch.setId(id);
+        savedSearchesById.put(id, savedSearch);
+        return savedSearch;
+    }
+
+    /**
+     * Ids of the saved searches an item matches, from the stored inbox
+     * entries
+     */
+    private List<Long> matchedIds(Item item) {
+        stored.clear();
+        int matches = percolator.percolate(item);
+        assertThat(stored).hasSize(matches);
+        return stored
+            .stream()
+            .map(match -> match.getSavedSearch().getId())
+            .toList();
+    }
+
+    private Item item(String title, String category, String location) {
+        Item item = new Item(
+            title,
+            "Gut erhalten",
+            category,
+            location,
+            "gebraucht",
+            seller
+        );
+        item.setId(100L);
+        return item;
+    }
+
+    private static User user(Long id, String username) {
+        User user = new User(username, username + "@example.com", "secret");
+        user.setId(id);
+        return user;
+    }
+}